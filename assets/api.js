@@ -143,6 +143,26 @@ window.ApiHttp = async function http(path, { method="GET", headers={}, body, tim
   }
 };
 
+// /uploads needs the bearer token, which <img src> cannot send: stored photos are fetched once per
+// page and shown through object URLs. Render <img data-photo="..."> and call Api.photos.hydrate(container).
+const photoObjectUrls = new Map();
+function photoObjectUrl(path){
+  if (!path || !path.startsWith('/uploads/')) return Promise.resolve(path);  // data:/blob: URLs in local mode
+  if (!photoObjectUrls.has(path)) {
+    const token = window.Api?.token?.() || localStorage.getItem("jwt");
+    const request = fetch(new URL(path, window.API_BASE).href, {
+      headers: token ? {"Authorization":`Bearer ${token}`} : {},
+      mode: 'cors',
+      credentials: 'include'
+    })
+      .then(res => { if(!res.ok) throw new Error(`${res.status} ${res.statusText}`); return res.blob(); })
+      .then(blob => URL.createObjectURL(blob))
+      .catch(err => { photoObjectUrls.delete(path); throw err; });
+    photoObjectUrls.set(path, request);
+  }
+  return photoObjectUrls.get(path);
+}
+
 // Define Api object (ensure it exists before app.js uses it)
 window.Api = window.Api || {
   token(){ return localStorage.getItem("jwt") || null; },
@@ -154,9 +174,12 @@ window.Api = window.Api || {
   },
   pets: {
     list:   () => ApiHttp("/pets",                 { token: Api.token() }),
+    page:   (params={}) => ApiHttp(`/pets/page?${new URLSearchParams(params)}`, { token: Api.token() }),
     get:    (id)=> ApiHttp(`/pets/${id}`,          { token: Api.token() }),
     create: (p)=>  ApiHttp("/pets",                { method:"POST", body:p, token: Api.token() }),
     update: (p)=>  ApiHttp(`/pets/${p.id}`,        { method:"PUT",  body:p, token: Api.token() }),
+    patch:  (id, changes)=> ApiHttp(`/pets/${id}`, { method:"PATCH", body:changes, token: Api.token() }),
+    procedures: (id, params)=> ApiHttp(`/pets/${id}/procedures?${new URLSearchParams(params||{})}`, { token: Api.token() }),
     remove: (id)=> ApiHttp(`/pets/${id}`,          { method:"DELETE", token: Api.token() }),
     uploadPhoto: (id, file)=>{ const fd=new FormData(); fd.append("file", file); return ApiHttp(`/pets/${id}/photo`, { method:"POST", body:fd, token: Api.token() }); },
     addProcedure: (id, proc)=>{
@@ -179,7 +202,8 @@ window.Api = window.Api || {
   appts: {
     list:    ()    => ApiHttp("/appointments", { token: Api.token() }),
     listForVet: (name) => ApiHttp(`/appointments?vet=${encodeURIComponent(name)}`, { token: Api.token() }),
-    listUnassigned: () => ApiHttp(`/appointments?unassigned=true`, { token: Api.token() }),
+    listUnassigned: (from, to) => ApiHttp(`/appointments?${new URLSearchParams({ unassigned: true, ...(from?{from}:{}), ...(to?{to}:{}) })}`, { token: Api.token() }),
+    listBetween: (from, to) => ApiHttp(`/appointments?${new URLSearchParams({ ...(from?{from}:{}), ...(to?{to}:{}) })}`, { token: Api.token() }),
     get:     (id)  => ApiHttp(`/appointments/${id}`, { token: Api.token() }),
     create:  (a)   => ApiHttp("/appointments", { method:"POST", body:a, token: Api.token() }),
     update:  (a)   => ApiHttp(`/appointments/${a.id}`, { method:"PUT", body:a, token: Api.token() }),
@@ -198,6 +222,17 @@ window.Api = window.Api || {
   procedures: {
     catalog: () => ApiHttp("/procedures/catalog", { token: Api.token() })
   },
+  photos: {
+    url: (path) => photoObjectUrl(path),
+    hydrate: (root=document) => {
+      root.querySelectorAll('img[data-photo]').forEach(img => {
+        const path = img.dataset.photo;
+        img.removeAttribute('data-photo');
+        photoObjectUrl(path).then(src => { img.src = src; })
+          .catch(err => console.warn('[API] Photo not loaded:', path, err.message));
+      });
+    }
+  },
   users: {
     list:   ()   => ApiHttp("/users", { token: Api.token() }),
     get:    (id) => ApiHttp(`/users/${id}`, { token: Api.token() }),
@@ -214,6 +249,10 @@ window.Api = window.Api || {
     log: (from, to) => {
       const q = new URLSearchParams({ from, to }).toString();
       return ApiHttp(`/ops/log?${q}`, { token: Api.token() });
+    },
+    logPage: (from, to, cursor, size=200) => {
+      const q = new URLSearchParams({ from, to, size, ...(cursor?{cursor}:{}) }).toString();
+      return ApiHttp(`/ops/log/page?${q}`, { token: Api.token() });
     }
   }
 };
@@ -457,6 +457,18 @@ window.repoListPets = async function() {
   return data ? JSON.parse(data) : [];
 };
 
+// One page of pets in id order: pass the previous page's nextCursor to continue; name matches a prefix
+window.repoPagePets = async function({ cursor, size = 25, name } = {}) {
+  if (window.USE_API) {
+    return await window.Api.pets.page({ size, ...(cursor ? { cursor } : {}), ...(name ? { name } : {}) });
+  }
+  const matching = (await repoListPets())
+    .filter(p => p.id > (cursor || 0) && (!name || (p.name || '').startsWith(name)))
+    .sort((a, b) => a.id - b.id);
+  const items = matching.slice(0, size);
+  return { items, nextCursor: matching.length > size ? items[items.length - 1].id : null, size };
+};
+
 window.repoGetPet = async function(id) {
   if (window.USE_API) {
     return await window.Api.pets.get(id);
@@ -497,7 +509,9 @@ window.repoAddPet = async function(pet, photoFile) {
 window.repoUpdatePet = async function(pet) {
   try {
     if (window.USE_API) {
-      const result = await window.Api.pets.update(pet);
+      // Only the pet's own fields; procedures and the photo have their own endpoints
+      const { id, procedures, photo, photoVariants, ownerId, ...changes } = pet;
+      const result = await window.Api.pets.patch(id, changes);
       showNotification('Pet record updated successfully!', 'success');
       return result;
     }
@@ -872,6 +886,20 @@ window.repoCreateUser = async function(user) {
 };
 
 // Reports repository functions
+
+// One page of the operation log for [from, to] in id order: pass the previous page's nextCursor to continue
+window.repoLogPage = async function(from, to, cursor, size = 200) {
+  if (window.USE_API) {
+    return await window.Api.reports.logPage(from, to, cursor, size);
+  }
+  // Demo mode only keeps the recent activity list, oldest last
+  const entries = (db()?.recent || []).slice().reverse()
+    .map((r, i) => ({ id: i + 1, ts: new Date(r.ts).toISOString(), type: 'ACTIVITY', message: r.text }))
+    .filter(e => e.id > (cursor || 0) && e.ts.slice(0, 10) >= from && e.ts.slice(0, 10) <= to);
+  const items = entries.slice(0, size);
+  return { items, nextCursor: entries.length > size ? items[items.length - 1].id : null, size };
+};
+
 window.repoSummary = async function(period, from, to) {
   if (window.USE_API) {
     return await window.Api.reports.summary(period, from, to);
@@ -932,16 +960,7 @@ window.repoSummary = async function(period, from, to) {
     return p.id && p.id > 0; // All pets are considered "added" for simplicity
   }).length;
   
-  // Get recent activity events
-  const events = [];
   const recentData = db();
-  if (recentData && recentData.recent) {
-    events.push(...recentData.recent.map(r => ({
-      ts: new Date(r.ts).toISOString(),
-      type: 'ACTIVITY',
-      message: r.text
-    })));
-  }
 
   // New Patients (from recent events within range)
   const newPatients = (recentData?.recent||[])
@@ -990,7 +1009,6 @@ window.repoSummary = async function(period, from, to) {
     appointmentsDone,
     prescriptionsDispensed,
     petsAdded,
-    events,
     newPatients,
     finished,
     finishedAppointments: finished,
@@ -1000,6 +1018,29 @@ window.repoSummary = async function(period, from, to) {
 };
 
 // Procedure repository functions
+// Newest first from the paged history endpoint; onPage gets the list so far after each page
+window.repoListProcedures = async function(petId, onPage) {
+  if (window.USE_API) {
+    let list = [];
+    let cursor = null;
+    do {
+      const page = await window.Api.pets.procedures(petId, cursor ? { size: 50, cursor } : { size: 50 });
+      list = list.concat((page.items||[]).map(pr => ({
+        ...pr,
+        name: pr.procedure || '',
+        performedAt: pr.date || ''
+      })));
+      if (onPage) onPage(list);
+      cursor = page.nextCursor;
+    } while (cursor);
+    return list;
+  }
+  const pet = await repoGetPet(petId);
+  const list = pet?.procedures || [];
+  if (onPage) onPage(list);
+  return list;
+};
+
 window.repoAddProcedure = async function(petId, procedure) {
   if (window.USE_API) {
       await window.Api.pets.addProcedure(petId, procedure);
@@ -2,8 +2,10 @@ package com.pawcare;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PawcareApplication {
     public static void main(String[] args) {
         SpringApplication.run(PawcareApplication.class, args);
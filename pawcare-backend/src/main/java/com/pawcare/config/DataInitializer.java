@@ -64,7 +64,10 @@ public class DataInitializer implements CommandLineRunner {
         user.setRole(role);
         user.setEmail(email);
         user.setActive(true);
-        user.setPasswordHash(passwordEncoder.encode(password));
+        // Existing users keep their hash (and any password they changed it to)
+        if (user.getPasswordHash() == null) {
+            user.setPasswordHash(passwordEncoder.encode(password));
+        }
         userRepository.save(user);
     }
 }
@@ -0,0 +1,71 @@
+package com.pawcare.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+
+/**
+ * Moves each entity's id sequence past its table's MAX(id) at startup. Tables created while ids were
+ * IDENTITY columns already hold rows, and a new sequence would hand their ids out again. Pooled
+ * ids take the block (value - allocationSize, value], so the next value must reach max + allocationSize.
+ * H2 has real sequences; on MySQL Hibernate emulates them with one-row "<name>" tables (next_val).
+ */
+@Component
+@DependsOn("entityManagerFactory")  // after ddl-auto has created the sequences
+public class IdSequenceAligner implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceAligner(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+            Table table = entity.getJavaType().getAnnotation(Table.class);
+            for (Field field : entity.getJavaType().getDeclaredFields()) {
+                SequenceGenerator sequence = field.getAnnotation(SequenceGenerator.class);
+                if (table != null && sequence != null) {
+                    align(database, table.name(), sequence.sequenceName(), sequence.allocationSize());
+                }
+            }
+        }
+    }
+
+    private void align(String database, String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) return;
+        long required = maxId + allocationSize;
+        if ("H2".equals(database)) {
+            Long next = jdbcTemplate.queryForObject(
+                    "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE UPPER(SEQUENCE_NAME) = UPPER(?)",
+                    Long.class, sequence);
+            if (next != null && next < required) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + required);
+                log.info("Moved sequence {} from {} to {} (max id in {} is {})", sequence, next, required, table, maxId);
+            }
+        } else if ("MySQL".equals(database)) {
+            if (jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", required, required) > 0) {
+                log.info("Moved sequence table {} to {} (max id in {} is {})", sequence, required, table, maxId);
+            }
+        } else {
+            log.warn("Not aligning sequence {} on {}; make sure it is past MAX(id) of {}", sequence, database, table);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.pawcare.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache on Caffeine through JCache. Every region is created here with its
+ * own TTL and size bound, and Hibernate is set to fail on any region not listed, so a new
+ * cached entity cannot silently fall back to an unbounded cache. Hit/miss/put counts per region
+ * show up as hibernate.second.level.cache.* and hibernate.cache.query.* meters.
+ * Each application context gets its own CacheManager, closed with the context, so contexts sharing a
+ * JVM (tests, devtools restarts) never see each other's regions.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Must match @Cache(region = ...) on User and Pet and the query hint in UserRepository
+    private static final String USERS = "users";
+    private static final String PETS = "pets";
+    private static final String USER_BY_USERNAME = "users-by-username";
+    private static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${pawcare.cache.users.ttl-seconds:600}") long userTtl,
+                                              @Value("${pawcare.cache.users.max-size:10000}") long userMax,
+                                              @Value("${pawcare.cache.pets.ttl-seconds:600}") long petTtl,
+                                              @Value("${pawcare.cache.pets.max-size:10000}") long petMax,
+                                              @Value("${pawcare.cache.queries.ttl-seconds:300}") long queryTtl,
+                                              @Value("${pawcare.cache.queries.max-size:2000}") long queryMax) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // The provider keeps one manager per URI for the whole JVM, so the default URI would be shared
+        URI uri = URI.create(provider.getDefaultURI() + "#" + UUID.randomUUID());
+        CacheManager manager = provider.getCacheManager(uri, getClass().getClassLoader());
+        manager.createCache(USERS, region(userTtl, userMax));
+        manager.createCache(PETS, region(petTtl, petMax));
+        manager.createCache(USER_BY_USERNAME, region(queryTtl, queryMax));
+        manager.createCache(DEFAULT_QUERY_RESULTS, region(queryTtl, queryMax));
+        // Last-write time per table; query results are checked against it, so it must never expire
+        manager.createCache(UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long ttlSeconds, long maxSize) {
+        return new CaffeineConfiguration<>()
+                .setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)))
+                .setMaximumSize(OptionalLong.of(maxSize));
+    }
+}
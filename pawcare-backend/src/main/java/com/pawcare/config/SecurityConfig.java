@@ -1,6 +1,12 @@
 package com.pawcare.config;
 
 import com.pawcare.security.JwtAuthenticationFilter;
+import com.pawcare.security.TunablePasswordEncoder;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -8,7 +14,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -29,7 +34,11 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches resume a request that was already authorized (e.g. streamed exports)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**", "/api/health").permitAll()
+                        // Served on the management port, bound to localhost
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
@@ -54,12 +63,22 @@ public class SecurityConfig {
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/api/**", configuration);
+        // Photos are fetched with the bearer token (assets/api.js), which needs a preflight
+        source.registerCorsConfiguration("/uploads/**", configuration);
         return source;
     }
 
+    // The cost is pinned so every node and restart writes the same hashes; bcrypt-cost 0 opts in to
+    // calibrating to target-millis at startup (single node only, the result varies with CPU and load)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${pawcare.auth.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${pawcare.auth.password.bcrypt-cost:12}") int bcryptCost,
+                                           @Value("${pawcare.auth.password.target-millis:250}") long targetMillis,
+                                           @Value("${pawcare.auth.password.min-bcrypt-cost:10}") int minCost,
+                                           @Value("${pawcare.auth.password.max-bcrypt-cost:14}") int maxCost,
+                                           @Value("${pawcare.auth.password.pbkdf2-iterations:310000}") int pbkdf2Iterations) {
+        int cost = bcryptCost > 0 ? bcryptCost : TunablePasswordEncoder.calibrateBcryptCost(targetMillis, minCost, maxCost);
+        return new TunablePasswordEncoder(algorithm, cost, pbkdf2Iterations);
     }
 
     @Bean
@@ -0,0 +1,8 @@
+package com.pawcare.config;
+
+/**
+ * Published by SqlBudgetFilter when a request ran more SQL statements than its endpoint's budget.
+ * The response has normally been sent by then, so this cannot fail the request; tests record these
+ * events (e.g. with @RecordApplicationEvents) to assert that an endpoint stays within its budget.
+ */
+public record SqlBudgetExceededEvent(String method, String uri, int statements, long nanos, int limit) {}
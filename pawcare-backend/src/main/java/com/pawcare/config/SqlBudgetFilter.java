@@ -0,0 +1,107 @@
+package com.pawcare.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements each request runs (including the JWT filter's user lookups),
+ * records them per endpoint and checks them against the configured statement budget.
+ * The count is only known once the handler has run, and by then the response has normally been
+ * flushed to the client, so an exceeded budget is logged and published as a SqlBudgetExceededEvent
+ * (which tests assert on) rather than failing the request. Async requests (login, password changes,
+ * CSV exports) are checked when they complete; their pool work carries the stats via
+ * SqlRequestStats.propagate.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlBudgetProperties budget;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher events;
+
+    public SqlBudgetFilter(SqlBudgetProperties budget, MeterRegistry meterRegistry, ApplicationEventPublisher events) {
+        this.budget = budget;
+        this.meterRegistry = meterRegistry;
+        this.events = events;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlRequestStats.end();
+        }
+
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    check(request, stats);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {}
+
+                @Override
+                public void onError(AsyncEvent event) {}
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {}
+            });
+        } else {
+            check(request, stats);
+        }
+    }
+
+    private void check(HttpServletRequest request, SqlRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("pawcare.sql.statements")
+                .description("SQL statements per HTTP request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("pawcare.sql.time")
+                .description("Time spent executing SQL per HTTP request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+
+        int limit = budget.limitFor(uri);
+        if (stats.getStatements() > limit) {
+            log.warn("SQL budget exceeded: {} {} ran {} statements in {} ms (budget {})",
+                    request.getMethod(), uri, stats.getStatements(), TimeUnit.NANOSECONDS.toMillis(stats.getNanos()), limit);
+            events.publishEvent(new SqlBudgetExceededEvent(request.getMethod(), uri, stats.getStatements(), stats.getNanos(), limit));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !budget.isEnabled();
+    }
+}
@@ -0,0 +1,34 @@
+package com.pawcare.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-request SQL statement budgets, keyed by the endpoint's URI pattern, e.g.
+ * pawcare.sql.budget.endpoints[/api/reports/summary]=12
+ */
+@Component
+@ConfigurationProperties(prefix = "pawcare.sql.budget")
+public class SqlBudgetProperties {
+
+    private boolean enabled = true;
+    private int defaultLimit = 25;
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+
+    public int limitFor(String uriPattern) {
+        return endpoints.getOrDefault(uriPattern, defaultLimit);
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getDefaultLimit() { return defaultLimit; }
+    public void setDefaultLimit(int defaultLimit) { this.defaultLimit = defaultLimit; }
+
+    public Map<String, Integer> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Integer> endpoints) { this.endpoints = endpoints; }
+}
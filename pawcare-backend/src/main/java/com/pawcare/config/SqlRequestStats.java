@@ -0,0 +1,93 @@
+package com.pawcare.config;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * SQL statements executed while an HTTP request is being handled.
+ * Opened and closed by SqlBudgetFilter, fed by SqlStatementListener. The stats live in a ThreadLocal
+ * on the request thread; work the request hands to a pool (login hashing, streamed exports) is
+ * wrapped with propagate() so its statements count towards the same request.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    // Atomic: an async request's work may run on another thread than the one that opened the stats
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong nanos = new AtomicLong();
+
+    private SqlRequestStats() {}
+
+    static SqlRequestStats begin() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    // No-op outside a request (scheduled jobs, startup tasks)
+    static void record(long elapsedNanos) {
+        SqlRequestStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements.incrementAndGet();
+            stats.nanos.addAndGet(elapsedNanos);
+        }
+    }
+
+    /** Runs the task with the calling request's stats, so its statements count towards that request. */
+    public static <T> Supplier<T> propagate(Supplier<T> task) {
+        SqlRequestStats stats = CURRENT.get();
+        if (stats == null) {
+            return task;
+        }
+        return () -> {
+            SqlRequestStats previous = attach(stats);
+            try {
+                return task.get();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /** Same for a streamed body, which MVC writes on its async executor. */
+    public static StreamingResponseBody propagate(StreamingResponseBody body) {
+        SqlRequestStats stats = CURRENT.get();
+        if (stats == null) {
+            return body;
+        }
+        return out -> {
+            SqlRequestStats previous = attach(stats);
+            try {
+                body.writeTo(out);
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static SqlRequestStats attach(SqlRequestStats stats) {
+        SqlRequestStats previous = CURRENT.get();
+        CURRENT.set(stats);
+        return previous;
+    }
+
+    private static void restore(SqlRequestStats previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public int getStatements() { return statements.get(); }
+
+    public long getNanos() { return nanos.get(); }
+}
@@ -0,0 +1,32 @@
+package com.pawcare.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Times every JDBC statement and batch Hibernate executes and adds it to the request's SqlRequestStats.
+ * Hibernate creates one instance per session, so the start time can live in a field.
+ */
+public class SqlStatementListener implements SessionEventListener {
+
+    private long startedAt;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        SqlRequestStats.record(System.nanoTime() - startedAt);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        startedAt = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        SqlRequestStats.record(System.nanoTime() - startedAt);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pawcare.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lower-cases appointments.vet_username rows saved before bookings were normalized, at startup and
+ * before any request is served. The slot check and uk_appointments_vet_slot compare the stored value,
+ * so an old "DrCruz" row would not block a new "drcruz" booking in the same slot.
+ * A row whose lower-cased name collides with another booking of that slot is a double booking that
+ * already exists; it is left as is and logged so it can be resolved by hand.
+ */
+@Component
+@DependsOn("entityManagerFactory")  // after ddl-auto has created the table and its constraint
+public class VetUsernameNormalizer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VetUsernameNormalizer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VetUsernameNormalizer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        // Usually empty, so rows are updated one at a time and a collision only skips its own row
+        List<Map<String, Object>> mixedCase = jdbcTemplate.queryForList(
+                "SELECT id, vet_username FROM appointments WHERE vet_username <> LOWER(vet_username)");
+        int updated = 0;
+        for (Map<String, Object> row : mixedCase) {
+            try {
+                updated += jdbcTemplate.update(
+                        "UPDATE appointments SET vet_username = LOWER(vet_username) WHERE id = ?", row.get("id"));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Appointment #{} ({}) double-books a slot once its vet username is lower-cased; left unchanged",
+                        row.get("id"), row.get("vet_username"));
+            }
+        }
+        if (updated > 0) {
+            log.info("Lower-cased vet_username on {} appointment(s)", updated);
+        }
+    }
+}
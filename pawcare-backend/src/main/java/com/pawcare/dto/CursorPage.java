@@ -0,0 +1,18 @@
+package com.pawcare.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CursorPage<T> {
+    public List<T> items = new ArrayList<>();
+    public Long nextCursor; // id to pass as ?cursor= for the next page, null when exhausted
+    public int size;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, Long nextCursor, int size) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.size = size;
+    }
+}
@@ -0,0 +1,38 @@
+package com.pawcare.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Names of the resized JPEG copies kept next to a stored photo: "<sha256>_<edge>.jpg", where edge
+ * is the longest side in pixels. The names follow from the original's, so URLs can be handed out
+ * before the background job has written the files (PhotoController fills gaps on request).
+ */
+public final class PhotoVariants {
+
+    public static final int[] SIZES = {96, 320};
+
+    // WebP is left out: javax.imageio has no reader for it, so those photos are only served as uploaded
+    private static final Pattern STORED = Pattern.compile("/uploads/([0-9a-f]{64})\\.(jpg|png|gif)");
+
+    private PhotoVariants() {}
+
+    public static String name(String hash, int size) {
+        return hash + "_" + size + ".jpg";
+    }
+
+    // Size (as string) -> URL, empty for legacy or unsupported photos
+    public static Map<String, String> urls(String photo) {
+        if (photo == null) return Collections.emptyMap();
+        Matcher matcher = STORED.matcher(photo);
+        if (!matcher.matches()) return Collections.emptyMap();
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (int size : SIZES) {
+            urls.put(String.valueOf(size), "/uploads/" + name(matcher.group(1), size));
+        }
+        return urls;
+    }
+}
@@ -1,7 +1,5 @@
 package com.pawcare.dto;
 
-import com.pawcare.entity.OperationLog;
-
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,7 +12,6 @@ public class ReportSummary {
     public int prescriptionsDispensed;
     public int petsAdded;
     public BigDecimal totalRevenue = BigDecimal.ZERO;
-    public List<OperationLog> events = new ArrayList<>();
     public List<NewPatient> newPatients = new ArrayList<>();
     public List<FinishedAppointment> finishedAppointments = new ArrayList<>();
 
@@ -0,0 +1,14 @@
+package com.pawcare.dto;
+
+import com.pawcare.entity.User;
+
+/**
+ * A vet account as kept by VetDirectory and listed by GET /api/users/vets. Copied out of the entity,
+ * so instances can be shared between requests and threads.
+ */
+public record VetSummary(Long id, String username, String name, String role, String email, boolean active) {
+
+    public static VetSummary of(User user) {
+        return new VetSummary(user.getId(), user.getUsername(), user.getName(), user.getRole(), user.getEmail(), user.isActive());
+    }
+}
@@ -1,13 +1,23 @@
 package com.pawcare.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", uniqueConstraints = {
+        // One booking per vet per slot; also the index behind the slot availability check
+        @UniqueConstraint(name = "uk_appointments_vet_slot", columnNames = {"vet_username", "date", "time"})
+}, indexes = {
+        @Index(name = "idx_appointments_assigned_vet_date", columnList = "assigned_vet_id, date"),
+        @Index(name = "idx_appointments_vet_date", columnList = "vet, date"),
+        @Index(name = "idx_appointments_date", columnList = "date"),
+        @Index(name = "idx_appointments_status_completed", columnList = "status, completed_at")
+})
 public class Appointment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointments_seq")
+    @SequenceGenerator(name = "appointments_seq", sequenceName = "appointments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "pet_id")
@@ -29,6 +39,7 @@ public class Appointment {
     @Column(name = "completed_at")
     private LocalDate completedAt;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pet_id", insertable = false, updatable = false)
     private Pet pet;
@@ -0,0 +1,66 @@
+package com.pawcare.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_rollups_day_vet", columnNames = {"rollup_date", "vet_id"})
+})
+public class DailyRollup {
+    public static final long NO_VET = 0L; // clinic-wide counters (pets added) and unassigned appointments
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "daily_rollups_seq")
+    @SequenceGenerator(name = "daily_rollups_seq", sequenceName = "daily_rollups_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "vet_id", nullable = false)
+    private Long vetId = NO_VET;
+
+    @Column(name = "appointments_done", nullable = false)
+    private int appointmentsDone;
+
+    @Column(name = "prescriptions_dispensed", nullable = false)
+    private int prescriptionsDispensed;
+
+    @Column(name = "pets_added", nullable = false)
+    private int petsAdded;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue = BigDecimal.ZERO;
+
+    // Constructors
+    public DailyRollup() {}
+
+    public DailyRollup(LocalDate day, Long vetId) {
+        this.day = day;
+        this.vetId = vetId;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+
+    public Long getVetId() { return vetId; }
+    public void setVetId(Long vetId) { this.vetId = vetId; }
+
+    public int getAppointmentsDone() { return appointmentsDone; }
+    public void setAppointmentsDone(int appointmentsDone) { this.appointmentsDone = appointmentsDone; }
+
+    public int getPrescriptionsDispensed() { return prescriptionsDispensed; }
+    public void setPrescriptionsDispensed(int prescriptionsDispensed) { this.prescriptionsDispensed = prescriptionsDispensed; }
+
+    public int getPetsAdded() { return petsAdded; }
+    public void setPetsAdded(int petsAdded) { this.petsAdded = petsAdded; }
+
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -4,10 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "operation_logs")
+@Table(name = "operation_logs", indexes = {
+        @Index(name = "idx_operation_logs_ts", columnList = "timestamp"),
+        @Index(name = "idx_operation_logs_type_ts", columnList = "operation_type, timestamp")
+})
 public class OperationLog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "operation_logs_seq")
+    @SequenceGenerator(name = "operation_logs_seq", sequenceName = "operation_logs_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "timestamp")
@@ -1,15 +1,29 @@
 package com.pawcare.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.pawcare.dto.PhotoVariants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Entity
-@Table(name = "pets")
+@Table(name = "pets", indexes = {
+        @Index(name = "idx_pets_species_id", columnList = "species, id"),
+        @Index(name = "idx_pets_owner_id", columnList = "owner, id"),
+        @Index(name = "idx_pets_name", columnList = "name")
+})
+@DynamicUpdate  // UPDATEs list only the changed columns
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pets")  // the procedures collection is not cached
 public class Pet {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pets_seq")
+    @SequenceGenerator(name = "pets_seq", sequenceName = "pets_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -26,6 +40,14 @@ public class Pet {
     private String federation;
     private String photo;
 
+    // Optimistic lock; the default fills rows created before the column existed
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Not serialized: history is paged through GET /api/pets/{id}/procedures
+    @JsonIgnore
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Procedure> procedures = new ArrayList<>();
 
@@ -79,6 +101,12 @@ public class Pet {
     public String getPhoto() { return photo; }
     public void setPhoto(String photo) { this.photo = photo; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    // Thumbnail URLs by longest edge ("96", "320"); derived from photo, not stored
+    public Map<String, String> getPhotoVariants() { return PhotoVariants.urls(photo); }
+
     public List<Procedure> getProcedures() { return procedures; }
     public void setProcedures(List<Procedure> procedures) { this.procedures = procedures; }
 }
@@ -1,14 +1,18 @@
 package com.pawcare.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "procedures")
+@Table(name = "procedures", indexes = {
+        @Index(name = "idx_procedures_pet_date", columnList = "pet_id, procedure_date")
+})
 public class Procedure {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "procedures_seq")
+    @SequenceGenerator(name = "procedures_seq", sequenceName = "procedures_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "procedure_date")
@@ -33,6 +37,7 @@ public class Procedure {
     @Column(precision = 12, scale = 2)
     private BigDecimal cost;
 
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "pet_id")
     private Pet pet;
@@ -1,10 +1,97 @@
 package com.pawcare.repository;
 
 import com.pawcare.entity.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
-}
 
+    // Slot conflict checks, served by the uk_appointments_vet_slot index (vetUsername is saved lower-cased)
+    boolean existsByVetUsernameAndDateAndTime(String vetUsername, LocalDate date, String time);
+
+    boolean existsByVetUsernameAndDateAndTimeAndIdNot(String vetUsername, LocalDate date, String time, Long id);
+
+    List<Appointment> findByPetIdAndStatusAndCompletedAt(Long petId, String status, LocalDate completedAt);
+
+    // Days a pet's finished appointments are counted on in the daily rollups
+    @Query("SELECT DISTINCT a.completedAt FROM Appointment a " +
+           "WHERE a.petId = :petId AND a.status = 'Done' AND a.completedAt IS NOT NULL")
+    List<LocalDate> findDoneDaysForPet(@Param("petId") Long petId);
+
+    // Listing queries; a null from/to leaves that side of the date window open. They select
+    // AppointmentRow columns rather than entities, so nothing lands in the persistence context.
+    String ROW_COLUMNS = "SELECT a.id AS id, a.petId AS petId, a.owner AS owner, a.code AS code, a.date AS date, " +
+           "a.time AS time, a.vetUsername AS vetUsername, a.assignedVetId AS assignedVetId, a.vet AS vet, " +
+           "a.status AS status, a.completedAt AS completedAt FROM Appointment a ";
+
+    @Query(ROW_COLUMNS + "WHERE (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) " +
+           "ORDER BY a.date, a.time")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<AppointmentRow> findInWindow(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(ROW_COLUMNS + "WHERE a.assignedVetId = :vetId " +
+           "AND (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) ORDER BY a.date, a.time")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<AppointmentRow> findForAssignedVet(@Param("vetId") Long vetId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Plain equality keeps idx_appointments_vet_date usable; callers pass the name as the vet account spells it
+    @Query(ROW_COLUMNS + "WHERE a.vet = :vet " +
+           "AND (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) ORDER BY a.date, a.time")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<AppointmentRow> findForVetName(@Param("vet") String vet, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(ROW_COLUMNS + "WHERE (a.assignedVetId IS NULL OR a.vetUsername IS NULL OR a.vetUsername = '') " +
+           "AND (:from IS NULL OR a.date >= :from) AND (:to IS NULL OR a.date <= :to) ORDER BY a.date, a.time")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<AppointmentRow> findUnassigned(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Report rows: one row per finished appointment and procedure performed on the completion day
+    @Query("SELECT a.id AS appointmentId, a.code AS code, a.completedAt AS completedAt, a.time AS time, " +
+           "a.vet AS vet, a.vetUsername AS vetUsername, a.owner AS ownerName, p.name AS petName, " +
+           "pr.id AS procedureId, pr.procedure AS procedureName, pr.category AS category, pr.cost AS cost " +
+           "FROM Appointment a LEFT JOIN a.pet p " +
+           "LEFT JOIN Procedure pr ON pr.pet = p AND pr.date = a.completedAt " +
+           "WHERE a.status = 'Done' AND a.completedAt BETWEEN :from AND :to " +
+           "ORDER BY a.completedAt, a.time, a.id, pr.id")
+    List<FinishedVisitRow> findFinishedVisits(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Same JSON shape as Appointment; the schedule edits rows from the list and PUTs them back
+    interface AppointmentRow {
+        Long getId();
+        Long getPetId();
+        String getOwner();
+        String getCode();
+        LocalDate getDate();
+        String getTime();
+        String getVetUsername();
+        Long getAssignedVetId();
+        String getVet();
+        String getStatus();
+        LocalDate getCompletedAt();
+    }
+
+    interface FinishedVisitRow {
+        Long getAppointmentId();
+        String getCode();
+        LocalDate getCompletedAt();
+        String getTime();
+        String getVet();
+        String getVetUsername();
+        String getOwnerName();
+        String getPetName();
+        Long getProcedureId();
+        String getProcedureName();
+        String getCategory();
+        BigDecimal getCost();
+    }
+}
@@ -0,0 +1,74 @@
+package com.pawcare.repository;
+
+import com.pawcare.entity.DailyRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+
+    // SELECT ... FOR UPDATE: increments to these rows wait until the caller commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM DailyRollup r WHERE r.day BETWEEN :from AND :to")
+    List<DailyRollup> lockWindow(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(r.appointmentsDone), 0) AS appointmentsDone, " +
+           "COALESCE(SUM(r.prescriptionsDispensed), 0) AS prescriptionsDispensed, " +
+           "COALESCE(SUM(r.petsAdded), 0) AS petsAdded, COALESCE(SUM(r.revenue), 0) AS revenue " +
+           "FROM DailyRollup r WHERE r.day BETWEEN :from AND :to")
+    Totals sumWindow(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(pr.cost), 0) FROM Procedure pr WHERE pr.pet.id = :petId AND pr.date = :day")
+    BigDecimal sumProcedureCost(@Param("petId") Long petId, @Param("day") LocalDate day);
+
+    // Aggregates over the raw tables, used to rebuild a window of rollup rows
+    @Query("SELECT a.completedAt AS day, COALESCE(a.assignedVetId, 0) AS vetId, COUNT(a) AS total " +
+           "FROM Appointment a WHERE a.status = 'Done' AND a.completedAt BETWEEN :from AND :to " +
+           "GROUP BY a.completedAt, COALESCE(a.assignedVetId, 0)")
+    List<DayCount> countDoneAppointments(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT a.completedAt AS day, COALESCE(a.assignedVetId, 0) AS vetId, SUM(pr.cost) AS amount " +
+           "FROM Appointment a JOIN a.pet p JOIN Procedure pr ON pr.pet = p AND pr.date = a.completedAt " +
+           "WHERE a.status = 'Done' AND a.completedAt BETWEEN :from AND :to " +
+           "GROUP BY a.completedAt, COALESCE(a.assignedVetId, 0)")
+    List<DayAmount> sumDoneRevenue(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.dispensedAt AS day, COALESCE(r.vetId, 0) AS vetId, COUNT(r) AS total " +
+           "FROM Prescription r WHERE r.dispensed = true AND r.dispensedAt BETWEEN :from AND :to " +
+           "GROUP BY r.dispensedAt, COALESCE(r.vetId, 0)")
+    List<DayCount> countDispensed(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT CAST(o.ts AS LocalDate) AS day, 0 AS vetId, COUNT(o) AS total " +
+           "FROM OperationLog o JOIN Pet p ON p.id = o.petId " +
+           "WHERE o.type = 'PET_CREATED' AND o.ts >= :from AND o.ts < :to " +
+           "GROUP BY CAST(o.ts AS LocalDate)")
+    List<DayCount> countPetsAdded(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface Totals {
+        Long getAppointmentsDone();
+        Long getPrescriptionsDispensed();
+        Long getPetsAdded();
+        BigDecimal getRevenue();
+    }
+
+    interface DayCount {
+        LocalDate getDay();
+        Number getVetId();
+        Long getTotal();
+    }
+
+    interface DayAmount {
+        LocalDate getDay();
+        Number getVetId();
+        BigDecimal getAmount();
+    }
+}
@@ -1,18 +1,51 @@
 package com.pawcare.repository;
 
 import com.pawcare.entity.OperationLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface OperationLogRepository extends JpaRepository<OperationLog, Long> {
-    
-    @Query("SELECT o FROM OperationLog o WHERE DATE(o.ts) BETWEEN :startDate AND :endDate ORDER BY o.ts")
-    List<OperationLog> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
 
+    // Half-open [from, to) range on the raw column so idx_operation_logs_ts can be used
+    @Query("SELECT o FROM OperationLog o WHERE o.ts >= :from AND o.ts < :to ORDER BY o.ts")
+    List<OperationLog> findInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    default List<OperationLog> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        return findInRange(startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+    }
+
+    @Query("SELECT o FROM OperationLog o WHERE o.ts >= :from AND o.ts < :to AND o.id > :afterId ORDER BY o.id")
+    List<OperationLog> findPageInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                       @Param("afterId") long afterId, Pageable limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM OperationLog o WHERE o.ts >= :from AND o.ts < :to ORDER BY o.ts")
+    Stream<OperationLog> streamInRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    Optional<OperationLog> findFirstByTypeAndPetIdOrderByTsAsc(String type, Long petId);
+
+    @Query("SELECT p.id AS petId, p.name AS petName, p.owner AS ownerName, o.ts AS addedAt " +
+           "FROM OperationLog o JOIN Pet p ON p.id = o.petId " +
+           "WHERE o.type = 'PET_CREATED' AND o.ts >= :from AND o.ts < :to ORDER BY o.ts")
+    List<NewPatientRow> findNewPatients(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface NewPatientRow {
+        Long getPetId();
+        String getPetName();
+        String getOwnerName();
+        LocalDateTime getAddedAt();
+    }
+}
@@ -1,10 +1,65 @@
 package com.pawcare.repository;
 
+import com.pawcare.dto.PhotoVariants;
 import com.pawcare.entity.Pet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Map;
+
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long> {
-}
 
+    // List views read these columns into PetRow instead of loading managed entities
+    String ROW_COLUMNS = "SELECT p.id AS id, p.name AS name, p.species AS species, p.breed AS breed, " +
+           "p.gender AS gender, p.age AS age, p.microchip AS microchip, p.owner AS owner, p.address AS address, " +
+           "p.federation AS federation, p.photo AS photo, p.version AS version FROM Pet p ";
+
+    @Query(ROW_COLUMNS + "ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<PetRow> findAllRows();
+
+    // Keyset page: seeks past the cursor id instead of using OFFSET, so deep pages cost the same as the first
+    @Query(ROW_COLUMNS + "WHERE p.id > :afterId " +
+           "AND (:species IS NULL OR p.species = :species) " +
+           "AND (:owner IS NULL OR p.owner = :owner) " +
+           "AND (:namePrefix IS NULL OR p.name LIKE :namePrefix ESCAPE '\\') " +
+           "ORDER BY p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<PetRow> findPageAfter(@Param("afterId") long afterId,
+                               @Param("species") String species,
+                               @Param("owner") String owner,
+                               @Param("namePrefix") String namePrefix,
+                               Pageable limit);
+
+    // Touches only the photo column instead of merging the whole pet and its procedures
+    @Modifying
+    @Query("UPDATE Pet p SET p.photo = :photo, p.version = p.version + 1 WHERE p.id = :id")
+    int updatePhoto(@Param("id") Long id, @Param("photo") String photo);
+
+    // Every scalar column of Pet: the records screen searches across all of them
+    interface PetRow {
+        Long getId();
+        String getName();
+        String getSpecies();
+        String getBreed();
+        String getGender();
+        Integer getAge();
+        String getMicrochip();
+        String getOwner();
+        String getAddress();
+        String getFederation();
+        String getPhoto();
+        Long getVersion();
+
+        default Map<String, String> getPhotoVariants() { return PhotoVariants.urls(getPhoto()); }
+    }
+}
@@ -1,10 +1,47 @@
 package com.pawcare.repository;
 
 import com.pawcare.entity.Prescription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
-}
 
+    // Column list for the prescriptions screen; rows are read without entering the persistence context
+    @Query("SELECT r.id AS id, r.petId AS petId, r.pet AS pet, r.owner AS owner, r.drug AS drug, " +
+           "r.dosage AS dosage, r.directions AS directions, r.prescriber AS prescriber, r.date AS date, " +
+           "r.dispensed AS dispensed, r.dispensedAt AS dispensedAt, r.appointmentId AS appointmentId, " +
+           "r.vetId AS vetId FROM Prescription r ORDER BY r.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    List<PrescriptionRow> findAllRows();
+
+    // Days a pet's dispensed prescriptions are counted on in the daily rollups
+    @Query("SELECT DISTINCT r.dispensedAt FROM Prescription r " +
+           "WHERE r.petId = :petId AND r.dispensed = true AND r.dispensedAt IS NOT NULL")
+    List<LocalDate> findDispensedDaysForPet(@Param("petId") Long petId);
+
+    // Same JSON shape as Prescription; the screen PUTs edited rows back
+    interface PrescriptionRow {
+        Long getId();
+        Long getPetId();
+        String getPet();
+        String getOwner();
+        String getDrug();
+        String getDosage();
+        String getDirections();
+        String getPrescriber();
+        LocalDate getDate();
+        boolean isDispensed();
+        LocalDate getDispensedAt();
+        Long getAppointmentId();
+        Long getVetId();
+    }
+}
@@ -0,0 +1,37 @@
+package com.pawcare.repository;
+
+import com.pawcare.entity.Procedure;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProcedureRepository extends JpaRepository<Procedure, Long> {
+
+    // Newest first, keyset on (date, id) after the cursor row; walks idx_procedures_pet_date.
+    // Undated procedures sort last (NULLs are lowest in H2 and MySQL) and page by id among themselves.
+    @Query("SELECT p FROM Procedure p WHERE p.pet.id = :petId " +
+           "AND (:category IS NULL OR p.category = :category) " +
+           "AND (:from IS NULL OR p.date >= :from) " +
+           "AND (:to IS NULL OR p.date <= :to) " +
+           "AND (:afterId IS NULL " +
+           "  OR (:afterDate IS NOT NULL AND (p.date < :afterDate OR p.date IS NULL OR (p.date = :afterDate AND p.id < :afterId))) " +
+           "  OR (:afterDate IS NULL AND p.date IS NULL AND p.id < :afterId)) " +
+           "ORDER BY p.date DESC, p.id DESC")
+    List<Procedure> findHistory(@Param("petId") Long petId,
+                                @Param("category") String category,
+                                @Param("from") LocalDate from,
+                                @Param("to") LocalDate to,
+                                @Param("afterId") Long afterId,
+                                @Param("afterDate") LocalDate afterDate,
+                                Pageable limit);
+
+    // Cursor rows are looked up within the pet, so another pet's procedure id cannot steer the keyset
+    Optional<Procedure> findByIdAndPetId(Long id, Long petId);
+}
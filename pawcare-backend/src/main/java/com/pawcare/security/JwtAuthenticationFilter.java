@@ -1,9 +1,13 @@
 package com.pawcare.security;
 
+import com.pawcare.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,10 +26,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final boolean trustClaims;
+    private final Counter loadedFromClaims;
+    private final Counter loadedFromDatabase;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   PrincipalCache principalCache,
+                                   @Value("${pawcare.auth.trust-token-claims:false}") boolean trustClaims,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.trustClaims = trustClaims;
+        this.loadedFromClaims = principalLoads(meterRegistry, "claims");
+        this.loadedFromDatabase = principalLoads(meterRegistry, "database");
+    }
+
+    // Principal cache misses, by where the principal was built from
+    private static Counter principalLoads(MeterRegistry registry, String source) {
+        return Counter.builder("pawcare.auth.principal.loads")
+                .tag("source", source)
+                .register(registry);
     }
 
     @Override
@@ -43,9 +66,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (StringUtils.hasText(authHeader) && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
             try {
-                if (jwtService.isValid(token)) {
-                    String username = jwtService.parseToken(token).getBody().getSubject();
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = principalCache.get(token);
+                if (userDetails == null) {
+                    // Cache miss: verify the token once and build the principal from its claims,
+                    // reading the users table only when the user changed after the token was issued
+                    JwtService.TokenClaims claims = jwtService.verify(token).orElse(null);
+                    if (claims != null) {
+                        PawCareUserDetails principal;
+                        if (trustClaims && principalCache.trustsClaims(claims)) {
+                            principal = fromClaims(claims);
+                            loadedFromClaims.increment();
+                        } else {
+                            principal = (PawCareUserDetails) userDetailsService.loadUserByUsername(claims.username());
+                            loadedFromDatabase.increment();
+                        }
+                        if (principal.isEnabled()) {
+                            principalCache.put(token, principal, claims.expiresAt());
+                            userDetails = principal;
+                        }
+                    }
+                }
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -60,6 +101,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static PawCareUserDetails fromClaims(JwtService.TokenClaims claims) {
+        User user = new User(claims.username(), claims.name(), claims.role());
+        user.setId(claims.userId());
+        user.setActive(true);
+        return new PawCareUserDetails(user);
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         // Skip filter for public paths and OPTIONS requests
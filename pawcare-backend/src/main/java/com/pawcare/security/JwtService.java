@@ -2,6 +2,9 @@ package com.pawcare.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -9,19 +12,38 @@ import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class JwtService {
 
     private final Key key;
     private final long ttlSeconds;
+    private final JwtParser parser; // immutable and thread-safe, built once
+    private final Counter expired;
+    private final Counter badSignature;
+    private final Counter malformed;
 
     public JwtService(
             @Value("${pawcare.jwt.secret}") String secret,
-            @Value("${pawcare.jwt.ttl-seconds:86400}") long ttlSeconds
+            @Value("${pawcare.jwt.ttl-seconds:86400}") long ttlSeconds,
+            MeterRegistry meterRegistry
     ) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.ttlSeconds = ttlSeconds;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        this.expired = failureCounter(meterRegistry, "expired");
+        this.badSignature = failureCounter(meterRegistry, "signature");
+        this.malformed = failureCounter(meterRegistry, "malformed");
+    }
+
+    private static Counter failureCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("pawcare.auth.jwt.failures")
+                .description("Bearer tokens rejected by JwtService")
+                .tag("reason", reason)
+                .register(registry);
     }
 
     public String generateToken(String username, Map<String, Object> claims) {
@@ -36,20 +58,38 @@ public class JwtService {
     }
 
     public Jws<Claims> parseToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
     }
 
-    public boolean isValid(String token) {
+    // Verifies the signature and expiry and extracts the claims in a single parse
+    public Optional<TokenClaims> verify(String token) {
         try {
-            parseToken(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Number userId = claims.get("userId", Number.class);
+            return Optional.of(new TokenClaims(
+                    claims.getSubject(),
+                    userId != null ? userId.longValue() : null,
+                    claims.get("role", String.class),
+                    claims.get("name", String.class),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+            ));
+        } catch (ExpiredJwtException e) {
+            expired.increment();
+            return Optional.empty();
+        } catch (SignatureException e) {
+            badSignature.increment();
+            return Optional.empty();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            malformed.increment();
+            return Optional.empty();
         }
     }
-}
 
+    public boolean isValid(String token) {
+        return verify(token).isPresent();
+    }
 
+    public record TokenClaims(String username, Long userId, String role, String name,
+                              Instant issuedAt, Instant expiresAt) {}
+}
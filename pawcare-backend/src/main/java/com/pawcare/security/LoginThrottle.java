@@ -0,0 +1,92 @@
+package com.pawcare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window login throttling on failed attempts, per client IP (credential stuffing spreads over
+ * usernames) and per username from that IP, so guessing at an account from one address cannot lock
+ * its owner out elsewhere. Each attempt reserves a slot in both counters before the password is
+ * checked, so concurrent guesses cannot overshoot the limit; successful and unprocessed attempts are
+ * refunded, so a shift change behind one NAT address is only limited by the hashing pool. The window
+ * starts at the first reservation.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, AtomicInteger> failuresByIp;
+    private final Cache<String, AtomicInteger> failuresByUserAndIp;
+    private final int maxFailuresPerIp;
+    private final int maxFailuresPerUser;
+    private final long windowSeconds;
+    private final Counter throttled;
+
+    public LoginThrottle(@Value("${pawcare.auth.throttle.window-seconds:60}") long windowSeconds,
+                         @Value("${pawcare.auth.throttle.max-failures-per-ip:20}") int maxFailuresPerIp,
+                         @Value("${pawcare.auth.throttle.max-failures-per-user:5}") int maxFailuresPerUser,
+                         MeterRegistry meterRegistry) {
+        Duration window = Duration.ofSeconds(windowSeconds);
+        this.failuresByIp = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+        this.failuresByUserAndIp = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.windowSeconds = windowSeconds;
+        this.throttled = Counter.builder("pawcare.auth.login.throttled")
+                .description("Login and password-change attempts refused by LoginThrottle")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserves one attempt for the IP and for the username from that IP; false (nothing reserved)
+     * when either has used up its failures for the current window. A reserved attempt counts as a
+     * failure unless it is handed back with {@link #recordSuccess} or {@link #release}.
+     */
+    public boolean tryAcquire(String username, String ip) {
+        AtomicInteger byIp = failuresByIp.get(ip, k -> new AtomicInteger());
+        if (byIp.incrementAndGet() > maxFailuresPerIp) {
+            refund(byIp);
+            throttled.increment();
+            return false;
+        }
+        AtomicInteger byUser = failuresByUserAndIp.get(key(username, ip), k -> new AtomicInteger());
+        if (byUser.incrementAndGet() > maxFailuresPerUser) {
+            refund(byUser);
+            refund(byIp);
+            throttled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // The credentials were right: earlier failures for this username from this IP are forgiven too
+    public void recordSuccess(String username, String ip) {
+        refund(failuresByIp.getIfPresent(ip));
+        failuresByUserAndIp.invalidate(key(username, ip));
+    }
+
+    // The attempt was never checked (e.g. the hashing pool was full)
+    public void release(String username, String ip) {
+        refund(failuresByIp.getIfPresent(ip));
+        refund(failuresByUserAndIp.getIfPresent(key(username, ip)));
+    }
+
+    public long getWindowSeconds() { return windowSeconds; }
+
+    private static void refund(AtomicInteger attempts) {
+        if (attempts != null) {
+            attempts.updateAndGet(n -> Math.max(0, n - 1));
+        }
+    }
+
+    private static String key(String username, String ip) {
+        return (username == null ? "" : username.trim().toLowerCase(Locale.ROOT)) + "|" + ip;
+    }
+}
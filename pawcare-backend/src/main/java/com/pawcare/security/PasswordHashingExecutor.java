@@ -0,0 +1,84 @@
+package com.pawcare.security;
+
+import com.pawcare.config.SqlRequestStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool for BCrypt work (login, password changes), so a burst of logins queues here
+ * instead of occupying the request threads. When the queue is full, submit throws
+ * RejectedExecutionException and the caller answers 503.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder, DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    // Checked against for unknown usernames so they take as long as a wrong password
+    private final String dummyHash;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   @Value("${pawcare.auth.hashing.threads:2}") int threads,
+                                   @Value("${pawcare.auth.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.dummyHash = passwordEncoder.encode("pawcare-dummy-password");
+    }
+
+    // The task's user lookup and rehash still count towards the submitting request's SQL budget
+    public <T> CompletableFuture<T> submit(Supplier<T> task) throws RejectedExecutionException {
+        return CompletableFuture.supplyAsync(SqlRequestStats.propagate(task), executor);
+    }
+
+    // Blocking; call from inside submit()
+    public boolean matches(CharSequence raw, String encoded) {
+        if (encoded == null) {
+            passwordEncoder.matches(raw, dummyHash);
+            return false;
+        }
+        return passwordEncoder.matches(raw, encoded);
+    }
+
+    // Blocking; call from inside submit()
+    public String encode(CharSequence raw) {
+        return passwordEncoder.encode(raw);
+    }
+
+    // True when the stored hash uses another algorithm or a lower cost than new hashes would
+    public boolean needsUpgrade(String encoded) {
+        return encoded != null && passwordEncoder.upgradeEncoding(encoded);
+    }
+
+    // executor.* meters (queued, active, completed, rejections via the AbortPolicy) tagged name=password-hashing
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,116 @@
+package com.pawcare.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verified principals keyed by bearer token, so steady-state requests skip JWT parsing and the users query.
+ * Entries live for at most the configured TTL and never past the token's own expiry.
+ * Also remembers when each user last changed, so claims in tokens issued before that change
+ * (or before this process started) are not trusted without re-reading the user. That record is
+ * per process, which is why trusting claims (pawcare.auth.trust-token-claims) is off by default.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final Cache<String, Entry> cache;
+    private final Map<Long, Instant> changedAt = new ConcurrentHashMap<>();
+    private final Instant startedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public PrincipalCache(@Value("${pawcare.auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${pawcare.auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String token, Entry entry, long currentTime) {
+                        Duration untilExpiry = entry.expiresAt() != null
+                                ? Duration.between(Instant.now(), entry.expiresAt())
+                                : ttl;
+                        Duration lifetime = untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+                        return Math.max(0, lifetime.toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public PawCareUserDetails get(String token) {
+        Entry entry = cache.getIfPresent(token);
+        return entry != null ? entry.principal() : null;
+    }
+
+    public void put(String token, PawCareUserDetails principal, Instant expiresAt) {
+        cache.put(token, new Entry(principal, expiresAt));
+    }
+
+    // Token iat has second precision, so a token issued in the same second as a change is not trusted either
+    public boolean trustsClaims(JwtService.TokenClaims claims) {
+        if (claims.userId() == null || claims.role() == null || claims.issuedAt() == null) {
+            return false;
+        }
+        if (claims.issuedAt().isBefore(startedAt)) {
+            return false;
+        }
+        Instant changed = changedAt.get(claims.userId());
+        return changed == null || claims.issuedAt().isAfter(changed);
+    }
+
+    // Called whenever a user row changes so the next request re-reads role, name and active flag.
+    // Applied once the caller's transaction commits (right away when there is none): evicting earlier
+    // lets a concurrent request re-cache the old row before the change is visible.
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(userId);
+                }
+            });
+        } else {
+            evictNow(userId);
+        }
+    }
+
+    private void evictNow(Long userId) {
+        changedAt.put(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        cache.asMap().values().removeIf(entry -> Objects.equals(userId, entry.principal().getUser().getId()));
+    }
+
+    // cache.gets{cache=auth.principals,result=hit|miss}, evictions and size
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "auth.principals");
+    }
+
+    record Entry(PawCareUserDetails principal, Instant expiresAt) {}
+}
@@ -0,0 +1,85 @@
+package com.pawcare.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Delegating encoder: new hashes are written as "{id}hash" with the configured algorithm and cost,
+ * hashes from before the prefix existed are read as plain BCrypt. upgradeEncoding reports hashes
+ * that use another algorithm or a BCrypt cost below the current one, so logins can rehash them.
+ * Hashes with a higher cost are left alone: lowering the cost would only weaken them, and nodes
+ * with different settings would otherwise keep rewriting each other's hashes.
+ */
+public class TunablePasswordEncoder implements PasswordEncoder {
+
+    private static final Logger log = LoggerFactory.getLogger(TunablePasswordEncoder.class);
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final String idForEncode;
+    private final int bcryptCost;
+    private final DelegatingPasswordEncoder delegate;
+
+    public TunablePasswordEncoder(String idForEncode, int bcryptCost, int pbkdf2Iterations) {
+        if (!idForEncode.equals("bcrypt") && !idForEncode.equals("pbkdf2")) {
+            throw new IllegalArgumentException("Unsupported password algorithm: " + idForEncode);
+        }
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptCost);
+        Pbkdf2PasswordEncoder pbkdf2 = new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+        this.idForEncode = idForEncode;
+        this.bcryptCost = bcryptCost;
+        this.delegate = new DelegatingPasswordEncoder(idForEncode, Map.of("bcrypt", bcrypt, "pbkdf2", pbkdf2));
+        this.delegate.setDefaultPasswordEncoderForMatches(bcrypt);
+    }
+
+    /**
+     * Picks the BCrypt cost whose hashing time is closest to targetMillis on this machine.
+     * Each cost step doubles the work, so one timed hash at minCost is enough to extrapolate.
+     */
+    public static int calibrateBcryptCost(long targetMillis, int minCost, int maxCost) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minCost);
+        probe.encode("calibration-warmup");
+        long start = System.nanoTime();
+        probe.encode("calibration-probe");
+        double millis = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.1);
+        int steps = (int) Math.round(Math.log(targetMillis / millis) / Math.log(2));
+        int cost = Math.max(minCost, Math.min(maxCost, minCost + steps));
+        log.info("BCrypt cost {} took {} ms; using cost {} for a {} ms target",
+                minCost, Math.round(millis), cost, targetMillis);
+        return cost;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith("{" + idForEncode + "}")) {
+            return true;
+        }
+        if (idForEncode.equals("bcrypt")) {
+            Matcher matcher = BCRYPT_COST.matcher(encodedPassword.substring("{bcrypt}".length()));
+            return !matcher.find() || Integer.parseInt(matcher.group(1)) < bcryptCost;
+        }
+        return false;
+    }
+
+    public String getIdForEncode() { return idForEncode; }
+
+    public int getBcryptCost() { return bcryptCost; }
+}
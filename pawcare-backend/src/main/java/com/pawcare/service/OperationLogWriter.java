@@ -0,0 +1,39 @@
+package com.pawcare.service;
+
+import com.pawcare.entity.OperationLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Append-only writer for operation_logs. Entries are persisted in the caller's transaction, so they
+ * commit or roll back with the change they record: rollups and pet deletion read PET_CREATED rows,
+ * and a row that could be lost after its change committed would leave them wrong for good.
+ * Ids come from the pooled operation_logs_seq, so Hibernate defers the INSERTs to flush and sends
+ * them in JDBC batches with the transaction's other rows (hibernate.jdbc.batch_size, order_inserts)
+ * instead of one round trip per entry.
+ */
+@Component
+public class OperationLogWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate standalone;
+
+    public OperationLogWriter(PlatformTransactionManager transactionManager) {
+        this.standalone = new TransactionTemplate(transactionManager);
+    }
+
+    // Call inside the transaction whose change the entry records; outside one the entry gets its own
+    public void append(OperationLog entry) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.persist(entry);
+        } else {
+            standalone.executeWithoutResult(status -> entityManager.persist(entry));
+        }
+    }
+}
@@ -2,33 +2,64 @@ package com.pawcare.service;
 
 import com.pawcare.entity.*;
 import com.pawcare.repository.*;
+import com.pawcare.repository.AppointmentRepository.AppointmentRow;
+import com.pawcare.repository.PetRepository.PetRow;
+import com.pawcare.repository.PrescriptionRepository.PrescriptionRow;
+import com.pawcare.security.PrincipalCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import com.pawcare.dto.CursorPage;
 import com.pawcare.dto.ReportSummary;
 import com.pawcare.dto.ReportSummary.FinishedAppointment;
 import com.pawcare.dto.ReportSummary.NewPatient;
+import com.pawcare.dto.VetSummary;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "pawcare.service", description = "PawCareService calls by method")
 public class PawCareService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_LOG_PAGE_SIZE = 1000;
+    private static final String SLOT_TAKEN_MESSAGE = "Selected vet already has an appointment for this slot";
+    private static final String SLOT_CONSTRAINT = "uk_appointments_vet_slot";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private PetRepository petRepository;
 
+    @Autowired
+    private ProcedureRepository procedureRepository;
+
     @Autowired
     private AppointmentRepository appointmentRepository;
 
@@ -46,53 +77,240 @@ public class PawCareService {
 
     @Autowired
     private ProcedureCatalogService procedureCatalogService;
-    // Pet operations
-    public List<Pet> getAllPets() {
-        return petRepository.findAll();
-    }
 
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private OperationLogWriter operationLogWriter;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private VetDirectory vetDirectory;
+    // Pet operations
+    // List reads return projections, so there is nothing for Hibernate to snapshot or dirty-check
+    @Transactional(readOnly = true)
+    public List<PetRow> getAllPets() {
+        return petRepository.findAllRows();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PetRow> getPetPage(Long cursor, int size, String species, String owner, String namePrefix) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String prefixPattern = StringUtils.hasText(namePrefix) ? escapeLike(namePrefix.trim()) + "%" : null;
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<PetRow> rows = petRepository.findPageAfter(
+                cursor != null ? cursor : 0L,
+                StringUtils.hasText(species) ? species.trim() : null,
+                StringUtils.hasText(owner) ? owner.trim() : null,
+                prefixPattern,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<PetRow> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Pet> getPetById(Long id) {
         return petRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public boolean petExists(Long id) {
+        return petRepository.existsById(id);
+    }
+
     public Pet savePet(Pet pet) {
         Pet savedPet = petRepository.save(pet);
         logOperation("PET_CREATED", "Added pet " + savedPet.getName(), savedPet.getId());
+        reportRollupService.petAdded(LocalDate.now(), 1);
         return savedPet;
     }
 
-    public Pet updatePet(Long id, Pet pet) {
-        pet.setId(id);
-        Pet updatedPet = petRepository.save(pet);
-        logOperation("PET_UPDATED", "Updated pet " + updatedPet.getName(), updatedPet.getId());
-        return updatedPet;
+    // Copies the pet's own columns onto the managed entity; procedures have their own endpoints and are
+    // ignored, so the collection is neither merged nor loaded. A missing photo keeps the current one.
+    public Optional<Pet> updatePet(Long id, Pet changes) {
+        Optional<Pet> found = petRepository.findById(id);
+        found.ifPresent(pet -> {
+            checkVersion(pet, changes.getVersion());
+            pet.setName(changes.getName());
+            pet.setSpecies(changes.getSpecies());
+            pet.setBreed(changes.getBreed());
+            pet.setGender(changes.getGender());
+            pet.setAge(changes.getAge());
+            pet.setMicrochip(changes.getMicrochip());
+            pet.setOwner(changes.getOwner());
+            pet.setAddress(changes.getAddress());
+            pet.setFederation(changes.getFederation());
+            if (changes.getPhoto() != null) {
+                pet.setPhoto(changes.getPhoto());
+            }
+            logOperation("PET_UPDATED", "Updated pet " + pet.getName(), id);
+        });
+        return found;
+    }
+
+    /**
+     * Sets only the given fields. Unchanged values are skipped by dirty checking, so editing the address
+     * issues "UPDATE pets SET address=?, version=? WHERE id=? AND version=?" and nothing else.
+     */
+    public Optional<Pet> patchPet(Long id, Map<String, Object> changes, Long expectedVersion) {
+        Optional<Pet> found = petRepository.findById(id);
+        found.ifPresent(pet -> {
+            checkVersion(pet, expectedVersion);
+            changes.forEach((field, value) -> applyPetField(pet, field, value));
+            logOperation("PET_UPDATED", "Updated pet " + pet.getName() + " (" + String.join(", ", changes.keySet()) + ")", id);
+        });
+        return found;
+    }
+
+    private static void checkVersion(Pet pet, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(pet.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Pet.class, pet.getId());
+        }
+    }
+
+    private static void applyPetField(Pet pet, String field, Object value) {
+        switch (field) {
+            case "name" -> {
+                String name = petText(field, value);
+                if (!StringUtils.hasText(name)) throw new IllegalArgumentException("Pet name is required");
+                pet.setName(name);
+            }
+            case "species" -> pet.setSpecies(petText(field, value));
+            case "breed" -> pet.setBreed(petText(field, value));
+            case "gender" -> pet.setGender(petText(field, value));
+            case "microchip" -> pet.setMicrochip(petText(field, value));
+            case "owner" -> pet.setOwner(petText(field, value));
+            case "address" -> pet.setAddress(petText(field, value));
+            case "federation" -> pet.setFederation(petText(field, value));
+            case "age" -> {
+                if (value != null && !(value instanceof Number)) throw new IllegalArgumentException("age must be a number");
+                pet.setAge(value == null ? null : ((Number) value).intValue());
+            }
+            default -> throw new IllegalArgumentException("Field cannot be patched: " + field);
+        }
+    }
+
+    private static String petText(String field, Object value) {
+        if (value != null && !(value instanceof String)) throw new IllegalArgumentException(field + " must be a string");
+        return (String) value;
+    }
+
+    public boolean updatePetPhoto(Long id, String photo) {
+        if (petRepository.updatePhoto(id, photo) == 0) {
+            return false;
+        }
+        logOperation("PET_UPDATED", "Updated photo of pet " + id, id);
+        return true;
     }
 
     public void deletePet(Long id) {
         Optional<Pet> pet = petRepository.findById(id);
         if (pet.isPresent()) {
+            // Days whose rollups include this pet: the day it was added (pets seeded without a PET_CREATED
+            // row were never counted) and the days its finished visits and dispensed prescriptions count on
+            Set<LocalDate> days = new TreeSet<>();
+            operationLogRepository.findFirstByTypeAndPetIdOrderByTsAsc("PET_CREATED", id)
+                    .ifPresent(created -> days.add(created.getTs().toLocalDate()));
+            days.addAll(appointmentRepository.findDoneDaysForPet(id));
+            days.addAll(prescriptionRepository.findDispensedDaysForPet(id));
             logOperation("PET_DELETED", "Deleted pet " + pet.get().getName(), id);
             petRepository.deleteById(id);
+            petRepository.flush();
+            // Procedures go with the pet, and appointments and prescriptions too where the schema cascades
+            // (database_setup.sql), so those days are recounted from what is left instead of bumped
+            days.forEach(day -> reportRollupService.rebuild(day, day));
         }
     }
 
-    public Pet addProcedureToPet(Long petId, Procedure procedure) {
-        Optional<Pet> petOpt = petRepository.findById(petId);
-        if (petOpt.isPresent()) {
-            Pet pet = petOpt.get();
+    /**
+     * One page of a pet's procedures, newest first. The cursor is the id of the last procedure of the
+     * previous page; its date is looked up so the keyset continues on (date, id). Empty when the pet is unknown.
+     */
+    @Transactional(readOnly = true)
+    public Optional<CursorPage<Procedure>> getProcedureHistory(Long petId, Long cursor, int size,
+                                                              String category, LocalDate from, LocalDate to) {
+        if (!petRepository.existsById(petId)) {
+            return Optional.empty();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDate afterDate = null;
+        if (cursor != null) {
+            Procedure last = procedureRepository.findByIdAndPetId(cursor, petId).orElse(null);
+            if (last == null) {
+                throw new IllegalArgumentException("Unknown cursor: " + cursor);
+            }
+            afterDate = last.getDate();
+        }
+        List<Procedure> rows = procedureRepository.findHistory(petId,
+                StringUtils.hasText(category) ? category.trim() : null, from, to,
+                cursor, afterDate, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<Procedure> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return Optional.of(new CursorPage<>(items, nextCursor, pageSize));
+    }
+
+    public Optional<Procedure> addProcedureToPet(Long petId, Procedure procedure) {
+        return addProceduresToPet(petId, List.of(procedure)).map(saved -> saved.get(0));
+    }
+
+    /**
+     * Inserts the procedures (e.g. everything done in one visit) in one transaction. Each row points at a
+     * reference proxy of the pet, so neither the pet nor its existing procedures are loaded.
+     */
+    public Optional<List<Procedure>> addProceduresToPet(Long petId, List<Procedure> procedures) {
+        if (!petRepository.existsById(petId)) {
+            return Optional.empty();
+        }
+        Pet pet = petRepository.getReferenceById(petId);
+        // One rollup lookup per visit day rather than per procedure
+        Map<LocalDate, BigDecimal> costByDate = new LinkedHashMap<>();
+        for (Procedure procedure : procedures) {
+            procedure.setId(null);
             enrichProcedureFromCatalog(procedure);
             procedure.setPet(pet);
-            pet.getProcedures().add(procedure);
-            return petRepository.save(pet);
+            procedureRepository.save(procedure);
+            if (procedure.getDate() != null && procedure.getCost() != null) {
+                costByDate.merge(procedure.getDate(), procedure.getCost(), BigDecimal::add);
+            }
         }
-        throw new RuntimeException("Pet not found with id: " + petId);
+        costByDate.forEach((date, cost) -> reportRollupService.procedureRecorded(petId, date, cost));
+        return Optional.of(procedures);
     }
 
     // Appointment operations
+    @Transactional(readOnly = true)
     public List<Appointment> getAllAppointments() {
         return appointmentRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<AppointmentRow> getAppointmentsFor(User actor, String vet, Boolean unassigned, LocalDate from, LocalDate to) {
+        // Vets can only see appointments assigned to them (by assignedVetId)
+        if ("vet".equalsIgnoreCase(actor.getRole())) {
+            return appointmentRepository.findForAssignedVet(actor.getId(), from, to);
+        }
+        // Admin and Receptionist can see all, but can filter
+        if (Boolean.TRUE.equals(unassigned)) {
+            List<AppointmentRow> open = appointmentRepository.findUnassigned(from, to);
+            return StringUtils.hasText(vet)
+                    ? open.stream().filter(a -> vet.equalsIgnoreCase(a.getVet())).toList()
+                    : open;
+        }
+        if (StringUtils.hasText(vet)) {
+            // "dr. cruz" finds Dr. Cruz's appointments: bookings store the name as the vet account spells it
+            String vetName = vetDirectory.byName(vet).map(VetSummary::name).orElse(vet.trim());
+            return appointmentRepository.findForVetName(vetName, from, to);
+        }
+        return appointmentRepository.findInWindow(from, to);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Appointment> getAppointmentById(Long id) {
         return appointmentRepository.findById(id);
     }
@@ -105,7 +323,7 @@ public class PawCareService {
             appointment.setCode(generateAppointmentCode());
         }
         ensureSlotAvailable(appointment, null);
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment = saveBookedSlot(appointment);
         logOperation("APPT_CREATED", "Appointment created for " + savedAppointment.getOwner(), savedAppointment.getPetId());
         return savedAppointment;
     }
@@ -117,6 +335,11 @@ public class PawCareService {
         if (!StringUtils.hasText(appointment.getCode())) {
             appointment.setCode(existing.getCode());
         }
+        // Snapshot the stored completion before the merge overwrites the managed entity
+        boolean wasDone = isCountedDone(existing);
+        LocalDate previousCompletedAt = existing.getCompletedAt();
+        Long previousVetId = existing.getAssignedVetId();
+        Long previousPetId = existing.getPetId();
         normalizeAppointment(appointment);
         
         // Filter by role instead of throwing errors
@@ -133,18 +356,16 @@ public class PawCareService {
         } else if ("receptionist".equals(role) || "admin".equals(role)) {
             // Admin and Receptionist can assign to any vet
             if (appointment.getAssignedVetId() != null) {
-                User vetUser = userRepository.findById(appointment.getAssignedVetId())
-                        .filter(u -> u.getRole().equalsIgnoreCase("vet"))
+                VetSummary vetUser = vetDirectory.byId(appointment.getAssignedVetId())
                         .orElseThrow(() -> new IllegalArgumentException("Assigned vet not found"));
-                appointment.setVetUsername(vetUser.getUsername());
-                appointment.setVet(vetUser.getName());
+                appointment.setVetUsername(vetUser.username());
+                appointment.setVet(vetUser.name());
             } else if (StringUtils.hasText(appointment.getVetUsername())) {
-                User vetUser = userRepository.findByUsernameIgnoreCase(appointment.getVetUsername())
-                        .filter(u -> u.getRole().equalsIgnoreCase("vet"))
+                VetSummary vetUser = vetDirectory.byUsername(appointment.getVetUsername())
                         .orElseThrow(() -> new IllegalArgumentException("Assigned vet not found"));
-                appointment.setVetUsername(vetUser.getUsername());
-                appointment.setVet(vetUser.getName());
-                appointment.setAssignedVetId(vetUser.getId());
+                appointment.setVetUsername(vetUser.username());
+                appointment.setVet(vetUser.name());
+                appointment.setAssignedVetId(vetUser.id());
             } else {
                 throw new IllegalArgumentException("An active vet must be assigned to the appointment");
             }
@@ -153,7 +374,14 @@ public class PawCareService {
         }
         
         ensureSlotAvailable(appointment, existing);
-        return appointmentRepository.save(appointment);
+        if (wasDone) {
+            reportRollupService.appointmentDone(previousCompletedAt, previousVetId, previousPetId, -1);
+        }
+        Appointment saved = saveBookedSlot(appointment);
+        if (isCountedDone(saved)) {
+            reportRollupService.appointmentDone(saved.getCompletedAt(), saved.getAssignedVetId(), saved.getPetId(), 1);
+        }
+        return saved;
     }
 
     public void deleteAppointment(Long id, User actor) {
@@ -170,6 +398,9 @@ public class PawCareService {
             throw new IllegalArgumentException("You do not have permission to delete appointments");
         }
         logOperation("APPT_DELETED", "Removed appointment #" + id, existing.getPetId());
+        if (isCountedDone(existing)) {
+            reportRollupService.appointmentDone(existing.getCompletedAt(), existing.getAssignedVetId(), existing.getPetId(), -1);
+        }
         appointmentRepository.deleteById(id);
     }
 
@@ -187,6 +418,9 @@ public class PawCareService {
             } else if (!"admin".equals(role)) {
                 throw new IllegalArgumentException("Only vets and admins can approve appointments");
             }
+            if (isCountedDone(appointment)) {
+                reportRollupService.appointmentDone(appointment.getCompletedAt(), appointment.getAssignedVetId(), appointment.getPetId(), -1);
+            }
             appointment.setStatus("Approved by Vet");
             logOperation("APPT_APPROVED", "Appointment approved for " + appointment.getOwner(), appointment.getPetId());
             return appointmentRepository.save(appointment);
@@ -208,35 +442,52 @@ public class PawCareService {
             } else if (!"admin".equals(role)) {
                 throw new IllegalArgumentException("Only vets and admins can mark appointments as done");
             }
+            if (isCountedDone(appointment)) {
+                reportRollupService.appointmentDone(appointment.getCompletedAt(), appointment.getAssignedVetId(), appointment.getPetId(), -1);
+            }
             appointment.setStatus("Done");
             appointment.setCompletedAt(LocalDate.now());
             logOperation("APPT_DONE", "Appointment done for " + appointment.getOwner(), appointment.getPetId());
+            reportRollupService.appointmentDone(appointment.getCompletedAt(), appointment.getAssignedVetId(), appointment.getPetId(), 1);
             return appointmentRepository.save(appointment);
         }
         throw new RuntimeException("Appointment not found with id: " + id);
     }
 
     // Prescription operations
-    public List<Prescription> getAllPrescriptions() {
-        return prescriptionRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<PrescriptionRow> getAllPrescriptions() {
+        return prescriptionRepository.findAllRows();
     }
 
+    @Transactional(readOnly = true)
     public Optional<Prescription> getPrescriptionById(Long id) {
         return prescriptionRepository.findById(id);
     }
 
     public Prescription savePrescription(Prescription prescription) {
         Prescription savedPrescription = prescriptionRepository.save(prescription);
+        if (isCountedDispensed(savedPrescription)) {
+            reportRollupService.prescriptionDispensed(savedPrescription.getDispensedAt(), savedPrescription.getVetId(), 1);
+        }
         logOperation("RX_CREATED", "Rx issued for " + savedPrescription.getPet() + " (" + savedPrescription.getDrug() + ")", savedPrescription.getPetId());
         return savedPrescription;
     }
 
     public Prescription updatePrescription(Long id, Prescription prescription) {
+        prescriptionRepository.findById(id).filter(PawCareService::isCountedDispensed)
+                .ifPresent(existing -> reportRollupService.prescriptionDispensed(existing.getDispensedAt(), existing.getVetId(), -1));
         prescription.setId(id);
-        return prescriptionRepository.save(prescription);
+        Prescription saved = prescriptionRepository.save(prescription);
+        if (isCountedDispensed(saved)) {
+            reportRollupService.prescriptionDispensed(saved.getDispensedAt(), saved.getVetId(), 1);
+        }
+        return saved;
     }
 
     public void deletePrescription(Long id) {
+        prescriptionRepository.findById(id).filter(PawCareService::isCountedDispensed)
+                .ifPresent(existing -> reportRollupService.prescriptionDispensed(existing.getDispensedAt(), existing.getVetId(), -1));
         prescriptionRepository.deleteById(id);
     }
 
@@ -244,26 +495,31 @@ public class PawCareService {
         Optional<Prescription> prescriptionOpt = prescriptionRepository.findById(id);
         if (prescriptionOpt.isPresent()) {
             Prescription prescription = prescriptionOpt.get();
+            if (isCountedDispensed(prescription)) {
+                reportRollupService.prescriptionDispensed(prescription.getDispensedAt(), prescription.getVetId(), -1);
+            }
             prescription.setDispensed(true);
             prescription.setDispensedAt(LocalDate.now());
             logOperation("RX_DISPENSED", "Rx dispensed for " + prescription.getPet(), prescription.getPetId());
+            reportRollupService.prescriptionDispensed(prescription.getDispensedAt(), prescription.getVetId(), 1);
             return prescriptionRepository.save(prescription);
         }
         throw new RuntimeException("Prescription not found with id: " + id);
     }
 
     // User operations
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
 
-    public List<User> getActiveVets() {
-        return userRepository.findAll().stream()
-                .filter(u -> u.getRole().equalsIgnoreCase("vet"))
-                .filter(User::isActive)
-                .toList();
+    // Served from memory without a transaction; a reload runs in the directory's own one
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<VetSummary> getActiveVets() {
+        return vetDirectory.active();
     }
 
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
@@ -288,7 +544,9 @@ public class PawCareService {
         if (user.getId() == null) {
             user.setActive(true);
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userChanged(saved);
+        return saved;
     }
 
     public User updateUser(Long id, User user) {
@@ -306,90 +564,120 @@ public class PawCareService {
         if (user.getUsername() == null || user.getUsername().isBlank()) {
             throw new IllegalArgumentException("Username is required");
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userChanged(saved);
+        return saved;
     }
 
     public void deleteUser(Long id) {
+        boolean vet = vetDirectory.contains(id);
         userRepository.deleteById(id);
+        principalCache.evictUser(id);
+        if (vet) {
+            vetDirectory.invalidate();
+        }
+    }
+
+    // Both caches drop the user once the write commits. The vet directory check covers promotions
+    // to vet as well as edits to, demotions of and deactivations of existing vets.
+    private void userChanged(User user) {
+        principalCache.evictUser(user.getId());
+        if ("vet".equalsIgnoreCase(user.getRole()) || vetDirectory.contains(user.getId())) {
+            vetDirectory.invalidate();
+        }
     }
 
     // Operation log operations
+    @Transactional(readOnly = true)
     public List<OperationLog> getOperationLogsBetween(LocalDate from, LocalDate to) {
         return operationLogRepository.findByDateRange(from, to);
     }
 
+    @Transactional(readOnly = true)
+    public CursorPage<OperationLog> getOperationLogPage(LocalDate from, LocalDate to, Long cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_LOG_PAGE_SIZE));
+        List<OperationLog> rows = operationLogRepository.findPageInRange(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                cursor != null ? cursor : 0L,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<OperationLog> items = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor, pageSize);
+    }
+
+    // Streams the window through a server-side cursor, detaching each row so the persistence context stays empty
+    @Transactional(readOnly = true)
+    public void exportOperationLogs(LocalDate from, LocalDate to, Consumer<OperationLog> sink) {
+        try (Stream<OperationLog> logs = operationLogRepository.streamInRange(from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+            logs.forEach(log -> {
+                sink.accept(log);
+                entityManager.detach(log);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
     public ReportSummary generateReportSummary(String period, LocalDate start, LocalDate end) {
         ReportSummary summary = new ReportSummary();
         summary.period = period;
         summary.from = start.toString();
         summary.to = end.toString();
 
-        List<OperationLog> logs = getOperationLogsBetween(start, end);
-        summary.events = logs;
-
-        // New patients based on PET_CREATED logs in the window
-        logs.stream()
-                .filter(log -> "PET_CREATED".equalsIgnoreCase(log.getType()))
-                .forEach(log -> petRepository.findById(log.getPetId()).ifPresent(pet -> {
+        // New patients based on PET_CREATED logs in the window, joined to their pets in one query
+        operationLogRepository.findNewPatients(start.atStartOfDay(), end.plusDays(1).atStartOfDay())
+                .forEach(row -> {
                     NewPatient patient = new NewPatient();
-                    patient.petId = pet.getId();
-                    patient.petName = pet.getName();
-                    patient.ownerName = pet.getOwner();
-                    patient.addedAt = log.getTs() != null ? log.getTs().toString() : summary.from;
+                    patient.petId = row.getPetId();
+                    patient.petName = row.getPetName();
+                    patient.ownerName = row.getOwnerName();
+                    patient.addedAt = row.getAddedAt() != null ? row.getAddedAt().toString() : summary.from;
                     summary.newPatients.add(patient);
-                }));
-        summary.petsAdded = summary.newPatients.size();
-
-        // Finished appointments (Done status with completedAt inside window)
-        List<Appointment> appointments = appointmentRepository.findAll().stream()
-                .filter(appt -> "Done".equalsIgnoreCase(appt.getStatus()))
-                .filter(appt -> appt.getCompletedAt() != null)
-                .filter(appt -> !appt.getCompletedAt().isBefore(start) && !appt.getCompletedAt().isAfter(end))
-                .toList();
-
-        appointments.forEach(appt -> {
-            FinishedAppointment item = new FinishedAppointment();
-            item.appointmentId = appt.getId();
-            item.code = appt.getCode();
-            item.date = appt.getCompletedAt().toString();
-            item.time = appt.getTime();
-            item.vet = appt.getVet();
-            item.vetUsername = appt.getVetUsername();
-            item.ownerName = appt.getOwner();
-
-            Pet pet = appt.getPet();
-            if (pet == null && appt.getPetId() != null) {
-                pet = petRepository.findById(appt.getPetId()).orElse(null);
-            }
-            if (pet != null) {
-                item.petName = pet.getName();
-                List<com.pawcare.entity.Procedure> todaysProcedures = pet.getProcedures().stream()
-                        .filter(proc -> proc.getDate() != null && proc.getDate().equals(appt.getCompletedAt()))
-                        .collect(Collectors.toList());
-                item.procedures = todaysProcedures.stream()
-                        .map(proc -> StringUtils.hasText(proc.getProcedure()) ? proc.getProcedure() : proc.getCategory())
-                        .collect(Collectors.toList());
-                item.totalCost = todaysProcedures.stream()
-                        .map(proc -> proc.getCost() != null ? proc.getCost() : java.math.BigDecimal.ZERO)
-                        .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-            } else {
-                item.petName = "";
+                });
+
+        // Finished appointments (Done status with completedAt inside window), with that day's procedures
+        Map<Long, FinishedAppointment> finished = new LinkedHashMap<>();
+        for (AppointmentRepository.FinishedVisitRow row : appointmentRepository.findFinishedVisits(start, end)) {
+            FinishedAppointment item = finished.computeIfAbsent(row.getAppointmentId(), id -> {
+                FinishedAppointment created = new FinishedAppointment();
+                created.appointmentId = id;
+                created.code = row.getCode();
+                created.date = row.getCompletedAt().toString();
+                created.time = row.getTime();
+                created.vet = row.getVet();
+                created.vetUsername = row.getVetUsername();
+                created.ownerName = row.getOwnerName();
+                created.petName = row.getPetName() != null ? row.getPetName() : "";
+                return created;
+            });
+            if (row.getProcedureId() != null) {
+                item.procedures.add(StringUtils.hasText(row.getProcedureName()) ? row.getProcedureName() : row.getCategory());
+                item.totalCost = item.totalCost.add(row.getCost() != null ? row.getCost() : BigDecimal.ZERO);
             }
+        }
+        summary.finishedAppointments.addAll(finished.values());
 
-            summary.finishedAppointments.add(item);
-        });
+        // Counters and revenue come from the daily rollups rather than the raw rows
+        DailyRollupRepository.Totals totals = reportRollupService.totals(start, end);
+        summary.appointmentsDone = totals.getAppointmentsDone().intValue();
+        summary.prescriptionsDispensed = totals.getPrescriptionsDispensed().intValue();
+        summary.petsAdded = totals.getPetsAdded().intValue();
+        summary.totalRevenue = totals.getRevenue();
+
+        return summary;
+    }
 
-        summary.appointmentsDone = summary.finishedAppointments.size();
-        summary.totalRevenue = summary.finishedAppointments.stream()
-                .map(item -> item.totalCost)
-                .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+    // Matches the report's definition of a finished appointment / dispensed prescription
+    private static boolean isCountedDone(Appointment appointment) {
+        return "Done".equals(appointment.getStatus()) && appointment.getCompletedAt() != null;
+    }
 
-        summary.prescriptionsDispensed = (int) prescriptionRepository.findAll().stream()
-                .filter(r -> r.isDispensed() && r.getDispensedAt() != null)
-                .filter(r -> !r.getDispensedAt().isBefore(start) && !r.getDispensedAt().isAfter(end))
-                .count();
+    private static boolean isCountedDispensed(Prescription prescription) {
+        return prescription.isDispensed() && prescription.getDispensedAt() != null;
+    }
 
-        return summary;
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     private void logOperation(String type, String message, Long petId) {
@@ -398,7 +686,7 @@ public class PawCareService {
         log.setType(type);
         log.setMessage(message);
         log.setPetId(petId);
-        operationLogRepository.save(log);
+        operationLogWriter.append(log);
     }
 
     private void normalizeAppointment(Appointment appointment) {
@@ -444,19 +732,17 @@ public class PawCareService {
         } else if ("receptionist".equals(role) || "admin".equals(role)) {
             // If assignedVetId is provided, use it
             if (appointment.getAssignedVetId() != null) {
-                User vetUser = userRepository.findById(appointment.getAssignedVetId())
-                        .filter(u -> u.getRole().equalsIgnoreCase("vet"))
+                VetSummary vetUser = vetDirectory.byId(appointment.getAssignedVetId())
                         .orElseThrow(() -> new IllegalArgumentException("Assigned vet not found"));
-                appointment.setVetUsername(vetUser.getUsername());
-                appointment.setVet(vetUser.getName());
+                appointment.setVetUsername(vetUser.username());
+                appointment.setVet(vetUser.name());
             } else if (StringUtils.hasText(appointment.getVetUsername())) {
                 // Fallback to vetUsername if assignedVetId not provided
-                User vetUser = userRepository.findByUsernameIgnoreCase(appointment.getVetUsername())
-                        .filter(u -> u.getRole().equalsIgnoreCase("vet"))
+                VetSummary vetUser = vetDirectory.byUsername(appointment.getVetUsername())
                         .orElseThrow(() -> new IllegalArgumentException("Assigned vet not found"));
-                appointment.setVetUsername(vetUser.getUsername());
-                appointment.setVet(vetUser.getName());
-                appointment.setAssignedVetId(vetUser.getId());  // Set assigned vet ID
+                appointment.setVetUsername(vetUser.username());
+                appointment.setVet(vetUser.name());
+                appointment.setAssignedVetId(vetUser.id());  // Set assigned vet ID
             } else {
                 throw new IllegalArgumentException("An active vet must be assigned to the appointment");
             }
@@ -469,15 +755,39 @@ public class PawCareService {
         if (!StringUtils.hasText(appointment.getVetUsername())) {
             return;
         }
-        appointmentRepository.findAll().stream()
-                .filter(a -> appointment.getDate().equals(a.getDate()))
-                .filter(a -> appointment.getTime().equals(a.getTime()))
-                .filter(a -> appointment.getVetUsername() != null && appointment.getVetUsername().equalsIgnoreCase(Objects.toString(a.getVetUsername(), "")))
-                .filter(a -> existing == null || !a.getId().equals(existing.getId()))
-                .findAny()
-                .ifPresent(a -> {
-                    throw new IllegalArgumentException("Selected vet already has an appointment for this slot");
-                });
+        // Saved lower-cased, so this check and uk_appointments_vet_slot see "DrCruz" and "drcruz" as one vet
+        appointment.setVetUsername(appointment.getVetUsername().toLowerCase(Locale.ROOT));
+        boolean taken = existing == null
+                ? appointmentRepository.existsByVetUsernameAndDateAndTime(
+                        appointment.getVetUsername(), appointment.getDate(), appointment.getTime())
+                : appointmentRepository.existsByVetUsernameAndDateAndTimeAndIdNot(
+                        appointment.getVetUsername(), appointment.getDate(), appointment.getTime(), existing.getId());
+        if (taken) {
+            throw new IllegalArgumentException(SLOT_TAKEN_MESSAGE);
+        }
+    }
+
+    private Appointment saveBookedSlot(Appointment appointment) {
+        try {
+            // Flush now so a booking that raced past ensureSlotAvailable hits the unique constraint here
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException ex) {
+            if (violatesSlotConstraint(ex)) {
+                throw new IllegalArgumentException(SLOT_TAKEN_MESSAGE);
+            }
+            throw ex;
+        }
+    }
+
+    // Drivers decorate the name differently (H2 adds schema and index suffixes), so match on the part we chose
+    private static boolean violatesSlotConstraint(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                return name != null && name.toLowerCase(Locale.ROOT).contains(SLOT_CONSTRAINT);
+            }
+        }
+        return false;
     }
 
     private String generateAppointmentCode() {
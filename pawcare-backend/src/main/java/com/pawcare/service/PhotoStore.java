@@ -0,0 +1,154 @@
+package com.pawcare.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Pet photos on disk, named by the SHA-256 of their content ("<sha256>.<ext>"). Uploads are
+ * streamed into a temp file while hashing, then moved into place; identical images share one file.
+ * Since a name never changes content, it doubles as the ETag and can be cached indefinitely.
+ */
+@Component
+public class PhotoStore {
+
+    // Originals, plus the resized "<sha256>_<edge>.jpg" copies written by ThumbnailService
+    private static final Pattern NAME = Pattern.compile("[0-9a-f]{64}(\\.(jpg|png|gif|webp)|_\\d{2,4}\\.jpg)");
+    // Uploads from before this store, "<millis>_<original file name>"; only image extensions are served
+    private static final Pattern LEGACY_NAME = Pattern.compile("\\d{10,}_[^/\\\\]+\\.(?i:jpe?g|png|gif|webp)");
+    private static final long CHUNK = 64 * 1024;
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+
+    public PhotoStore(@Value("${pawcare.upload-dir:uploads}") String uploadDir,
+                      @Value("${pawcare.photos.max-bytes:5242880}") long maxBytes) throws IOException {
+        this.root = Path.of(uploadDir == null || uploadDir.isBlank() ? "uploads" : uploadDir).toAbsolutePath().normalize();
+        this.tmp = Files.createDirectories(root.resolve(".tmp"));
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Streams the image into the store and returns its file name. Throws IllegalArgumentException
+     * when the body is empty, larger than the limit, or not a JPEG/PNG/GIF/WebP image.
+     */
+    public String store(InputStream in) throws IOException {
+        MessageDigest sha256 = sha256();
+        Path part = tempFile(".part");
+        try {
+            long size = 0;
+            try (ReadableByteChannel src = Channels.newChannel(new DigestInputStream(in, sha256));
+                 FileChannel dst = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long n;
+                // The stream channel blocks until data arrives, so 0 here means end of body
+                while ((n = dst.transferFrom(src, size, CHUNK)) > 0) {
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new TooLargeException(maxBytes);
+                    }
+                }
+            }
+            if (size == 0) throw new IllegalArgumentException("Photo is empty");
+
+            String name = HexFormat.of().formatHex(sha256.digest()) + "." + extension(part);
+            Path target = root.resolve(name);
+            if (Files.exists(target)) {
+                return name;  // same content already stored
+            }
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException raced) {
+                // a concurrent upload of the same image won
+            }
+            return name;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    // Only names this store could have produced resolve, so callers can pass request paths straight in
+    public Optional<Path> resolve(String name) {
+        if (name == null || !(NAME.matcher(name).matches() || isLegacy(name))) return Optional.empty();
+        Path file = root.resolve(name).normalize();
+        if (!root.equals(file.getParent())) return Optional.empty();
+        return Files.isRegularFile(file, LinkOption.NOFOLLOW_LINKS) ? Optional.of(file) : Optional.empty();
+    }
+
+    // Legacy names say nothing about content, so they cannot be used as an ETag or cached as immutable
+    public static boolean isLegacy(String name) {
+        return LEGACY_NAME.matcher(name).matches();
+    }
+
+    // Where a name lives, whether or not it exists yet
+    Path file(String name) {
+        return root.resolve(name);
+    }
+
+    Path tempFile(String suffix) {
+        return tmp.resolve("upload-" + UUID.randomUUID() + suffix);
+    }
+
+    public static String etag(String name) {
+        return "\"" + name.substring(0, name.indexOf('.')) + "\"";
+    }
+
+    public static String contentType(String name) {
+        return switch (name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT)) {
+            case "jpg", "jpeg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            default -> "image/webp";
+        };
+    }
+
+    // Decided by magic bytes, not the client's file name or Content-Type
+    private static String extension(Path file) throws IOException {
+        byte[] head = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = in.readNBytes(head, 0, head.length);
+        }
+        if (read >= 3 && (head[0] & 0xff) == 0xff && (head[1] & 0xff) == 0xd8 && (head[2] & 0xff) == 0xff) return "jpg";
+        if (read >= 8 && (head[0] & 0xff) == 0x89 && head[1] == 'P' && head[2] == 'N' && head[3] == 'G') return "png";
+        if (read >= 6 && head[0] == 'G' && head[1] == 'I' && head[2] == 'F' && head[3] == '8') return "gif";
+        if (read >= 12 && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') return "webp";
+        throw new IllegalArgumentException("Photo must be a JPEG, PNG, GIF or WebP image");
+    }
+
+    public static class TooLargeException extends IllegalArgumentException {
+        public TooLargeException(long maxBytes) {
+            super("Photo exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.pawcare.service;
+
+import com.pawcare.entity.DailyRollup;
+import com.pawcare.repository.AppointmentRepository;
+import com.pawcare.repository.DailyRollupRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the daily_rollups table that backs the report counters.
+ * PawCareService bumps rows in the same transaction as the change it records, with one upsert
+ * (MERGE on H2, INSERT ... ON DUPLICATE KEY UPDATE on MySQL) that creates the day's row on first use;
+ * rebuild() recomputes a window from the raw tables for backfill and to heal drift
+ * from edits that are not tracked incrementally (e.g. procedure edits through PUT /api/pets).
+ */
+@Service
+@Transactional
+public class ReportRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportRollupService.class);
+    private static final LocalDate BACKFILL_START = LocalDate.of(1970, 1, 1);
+
+    // Parameters in both dialects: id, rollup_date, vet_id, appointments_done, prescriptions_dispensed, pets_added, revenue
+    private static final String MYSQL_INSERT =
+            "INSERT INTO daily_rollups (id, rollup_date, vet_id, appointments_done, prescriptions_dispensed, pets_added, revenue) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE ";
+    private static final String MYSQL_ADD = MYSQL_INSERT
+            + "appointments_done = appointments_done + VALUES(appointments_done), "
+            + "prescriptions_dispensed = prescriptions_dispensed + VALUES(prescriptions_dispensed), "
+            + "pets_added = pets_added + VALUES(pets_added), revenue = revenue + VALUES(revenue)";
+    private static final String MYSQL_IF_ABSENT = MYSQL_INSERT + "id = id";
+    private static final String MERGE_USING =
+            "MERGE INTO daily_rollups r USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT), "
+            + "CAST(? AS INT), CAST(? AS INT), CAST(? AS INT), CAST(? AS DECIMAL(14, 2)))) "
+            + "s(id, rollup_date, vet_id, appointments_done, prescriptions_dispensed, pets_added, revenue) "
+            + "ON r.rollup_date = s.rollup_date AND r.vet_id = s.vet_id ";
+    private static final String MERGE_INSERT =
+            "WHEN NOT MATCHED THEN INSERT (id, rollup_date, vet_id, appointments_done, prescriptions_dispensed, pets_added, revenue) "
+            + "VALUES (s.id, s.rollup_date, s.vet_id, s.appointments_done, s.prescriptions_dispensed, s.pets_added, s.revenue)";
+    private static final String MERGE_ADD = MERGE_USING
+            + "WHEN MATCHED THEN UPDATE SET appointments_done = r.appointments_done + s.appointments_done, "
+            + "prescriptions_dispensed = r.prescriptions_dispensed + s.prescriptions_dispensed, "
+            + "pets_added = r.pets_added + s.pets_added, revenue = r.revenue + s.revenue "
+            + MERGE_INSERT;
+    private static final String MERGE_IF_ABSENT = MERGE_USING + MERGE_INSERT;
+
+    private final DailyRollupRepository rollupRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int rebuildDays;
+    private final String addSql;
+    private final String insertIfAbsentSql;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ReportRollupService(DailyRollupRepository rollupRepository,
+                               AppointmentRepository appointmentRepository,
+                               JdbcTemplate jdbcTemplate,
+                               @Value("${pawcare.reports.rollup-rebuild-days:7}") int rebuildDays) {
+        this.rollupRepository = rollupRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildDays = rebuildDays;
+        boolean mysql = "MySQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName()));
+        this.addSql = mysql ? MYSQL_ADD : MERGE_ADD;
+        this.insertIfAbsentSql = mysql ? MYSQL_IF_ABSENT : MERGE_IF_ABSENT;
+    }
+
+    @Transactional(readOnly = true)
+    public DailyRollupRepository.Totals totals(LocalDate from, LocalDate to) {
+        return rollupRepository.sumWindow(from, to);
+    }
+
+    public void petAdded(LocalDate day, int delta) {
+        bump(day, DailyRollup.NO_VET, 0, 0, delta, BigDecimal.ZERO);
+    }
+
+    // Counts a Done appointment (sign = 1) or takes it back out (sign = -1), with that day's procedure costs as revenue
+    public void appointmentDone(LocalDate completedAt, Long vetId, Long petId, int sign) {
+        if (completedAt == null) {
+            return;
+        }
+        BigDecimal revenue = petId != null ? rollupRepository.sumProcedureCost(petId, completedAt) : BigDecimal.ZERO;
+        bump(completedAt, vetKey(vetId), sign, 0, 0, revenue.multiply(BigDecimal.valueOf(sign)));
+    }
+
+    public void prescriptionDispensed(LocalDate dispensedAt, Long vetId, int sign) {
+        if (dispensedAt == null) {
+            return;
+        }
+        bump(dispensedAt, vetKey(vetId), 0, sign, 0, BigDecimal.ZERO);
+    }
+
+    // A procedure recorded on a day the pet already had a finished appointment adds to that visit's revenue
+    public void procedureRecorded(Long petId, LocalDate date, BigDecimal cost) {
+        if (petId == null || date == null || cost == null || cost.signum() == 0) {
+            return;
+        }
+        appointmentRepository.findByPetIdAndStatusAndCompletedAt(petId, "Done", date)
+                .forEach(appt -> bump(date, vetKey(appt.getAssignedVetId()), 0, 0, 0, cost));
+    }
+
+    /**
+     * Locks the window's rows before reading the raw tables: bumps to those rows wait for the rebuilt
+     * values, and bumps that committed earlier are already counted. A row a bump creates meanwhile is
+     * left as bumped (the next rebuild heals it) rather than overwritten or counted twice.
+     */
+    public void rebuild(LocalDate from, LocalDate to) {
+        List<DailyRollup> existing = rollupRepository.lockWindow(from, to);
+        Map<String, DailyRollup> rows = new LinkedHashMap<>();
+        rollupRepository.countDoneAppointments(from, to)
+                .forEach(b -> row(rows, b.getDay(), b.getVetId()).setAppointmentsDone(b.getTotal().intValue()));
+        rollupRepository.sumDoneRevenue(from, to)
+                .forEach(b -> row(rows, b.getDay(), b.getVetId()).setRevenue(b.getAmount() != null ? b.getAmount() : BigDecimal.ZERO));
+        rollupRepository.countDispensed(from, to)
+                .forEach(b -> row(rows, b.getDay(), b.getVetId()).setPrescriptionsDispensed(b.getTotal().intValue()));
+        rollupRepository.countPetsAdded(from.atStartOfDay(), to.plusDays(1).atStartOfDay())
+                .forEach(b -> row(rows, b.getDay(), b.getVetId()).setPetsAdded(b.getTotal().intValue()));
+
+        int rebuilt = rows.size();
+        for (DailyRollup current : existing) {
+            DailyRollup fresh = rows.remove(key(current.getDay(), current.getVetId()));
+            if (fresh == null) {
+                rollupRepository.delete(current);
+            } else {
+                current.setAppointmentsDone(fresh.getAppointmentsDone());
+                current.setPrescriptionsDispensed(fresh.getPrescriptionsDispensed());
+                current.setPetsAdded(fresh.getPetsAdded());
+                current.setRevenue(fresh.getRevenue());
+            }
+        }
+        rollupRepository.flush();
+        rows.values().forEach(row -> upsert(insertIfAbsentSql, row.getDay(), row.getVetId(), row.getAppointmentsDone(),
+                row.getPrescriptionsDispensed(), row.getPetsAdded(), row.getRevenue()));
+        log.info("Rebuilt {} daily rollup rows for {}..{}", rebuilt, from, to);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0) {
+            rebuild(BACKFILL_START, LocalDate.now());
+        }
+    }
+
+    @Scheduled(cron = "${pawcare.reports.rollup-rebuild-cron:0 30 2 * * *}")
+    public void rebuildRecent() {
+        LocalDate today = LocalDate.now();
+        rebuild(today.minusDays(rebuildDays), today);
+    }
+
+    private void bump(LocalDate day, Long vetId, int appointments, int prescriptions, int pets, BigDecimal revenue) {
+        upsert(addSql, day, vetId, appointments, prescriptions, pets, revenue);
+    }
+
+    // Straight to the upsert, no UPDATE first: on MySQL an UPDATE that misses takes a gap lock, and two
+    // requests creating the same row would deadlock on their INSERTs. The id is only used when a row is created.
+    private void upsert(String sql, LocalDate day, Long vetId, int appointments, int prescriptions, int pets, BigDecimal revenue) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.update(sql, nextId(), day, vetId, appointments, prescriptions, pets, revenue);
+                return;
+            } catch (DuplicateKeyException e) {
+                // H2's MERGE can lose to a concurrent insert of the same day and vet; that row is committed now
+                if (attempt == 3) throw e;
+            }
+        }
+    }
+
+    // From Hibernate's pooled generator, so ids never collide with rows it inserts itself
+    private Long nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(DailyRollup.class).getGenerator();
+        return (Long) generator.generate(session, null);
+    }
+
+    private static DailyRollup row(Map<String, DailyRollup> rows, LocalDate day, Number vetId) {
+        long vet = vetId != null ? vetId.longValue() : DailyRollup.NO_VET;
+        return rows.computeIfAbsent(key(day, vet), key -> new DailyRollup(day, vet));
+    }
+
+    private static String key(LocalDate day, long vetId) {
+        return day + "#" + vetId;
+    }
+
+    private static Long vetKey(Long vetId) {
+        return vetId != null ? vetId : DailyRollup.NO_VET;
+    }
+}
@@ -0,0 +1,195 @@
+package com.pawcare.service;
+
+import com.pawcare.dto.PhotoVariants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes the PhotoVariants JPEGs for stored photos. Uploads queue the work on a small background
+ * pool (excess is dropped); a variant requested before it exists is generated on the spot.
+ * Large sources are decoded with subsampling, so a 4000px photo is never fully inflated in memory.
+ */
+@Component
+public class ThumbnailService implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+    private static final Pattern VARIANT = Pattern.compile("([0-9a-f]{64})_(\\d+)\\.jpg");
+    private static final String[] SOURCE_EXTENSIONS = {"jpg", "png", "gif"};
+
+    private final PhotoStore photoStore;
+    private final ThreadPoolExecutor executor;
+    private final long maxPixels;
+    private final float quality;
+
+    public ThumbnailService(PhotoStore photoStore,
+                            @Value("${pawcare.photos.thumbnail-threads:1}") int threads,
+                            @Value("${pawcare.photos.thumbnail-queue-capacity:100}") int queueCapacity,
+                            @Value("${pawcare.photos.max-pixels:40000000}") long maxPixels,
+                            @Value("${pawcare.photos.thumbnail-quality:0.8}") float quality) {
+        this.photoStore = photoStore;
+        this.maxPixels = maxPixels;
+        this.quality = quality;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "thumbnails");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    // Fire and forget after an upload; anything dropped here is generated on first request
+    public void generateAsync(String photoName) {
+        executor.execute(() -> {
+            try {
+                generate(photoName);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not create thumbnails for {}: {}", photoName, e.toString());
+            }
+        });
+    }
+
+    /** Returns the variant file, creating all variants of its original first if needed. */
+    public Optional<Path> variant(String name) {
+        Matcher matcher = VARIANT.matcher(name);
+        if (!matcher.matches() || Arrays.stream(PhotoVariants.SIZES).noneMatch(s -> s == Integer.parseInt(matcher.group(2)))) {
+            return Optional.empty();
+        }
+        for (String extension : SOURCE_EXTENSIONS) {
+            String original = matcher.group(1) + "." + extension;
+            if (photoStore.resolve(original).isPresent()) {
+                try {
+                    generate(original);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not create thumbnails for {}: {}", original, e.toString());
+                    return Optional.empty();
+                }
+                return photoStore.resolve(name);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void generate(String photoName) throws IOException {
+        String hash = photoName.substring(0, photoName.indexOf('.'));
+        int[] missing = Arrays.stream(PhotoVariants.SIZES)
+                .filter(size -> !Files.exists(photoStore.file(PhotoVariants.name(hash, size))))
+                .toArray();
+        if (missing.length == 0 || photoName.endsWith(".webp")) return;
+
+        BufferedImage source = read(photoStore.file(photoName), Arrays.stream(missing).max().getAsInt());
+        for (int size : missing) {
+            write(resize(source, size), photoStore.file(PhotoVariants.name(hash, size)));
+        }
+    }
+
+    // Decodes every n-th pixel when the image is more than twice the largest edge we need
+    private BufferedImage read(Path file, int largestEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("No image reader for " + file.getFileName());
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IOException("Image is " + width + "x" + height + ", over the pixel limit");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (largestEdge * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Fits the longest edge to size (never upscales) and flattens transparency onto white for JPEG
+    private static BufferedImage resize(BufferedImage source, int size) {
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Path part = photoStore.tempFile(".jpg");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(part.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException raced) {
+                // generated concurrently by the background job or another request
+            }
+        } finally {
+            writer.dispose();
+            Files.deleteIfExists(part);
+        }
+    }
+
+    // executor.* meters tagged name=thumbnails
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "thumbnails", Tags.empty()).bindTo(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,191 @@
+package com.pawcare.service;
+
+import com.pawcare.dto.VetSummary;
+import com.pawcare.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * All vet accounts in memory, by id and by lower-cased username and name, for booking validation and the
+ * vets dropdown. Loaded at startup and reloaded in the background after a user change touching a vet
+ * commits, or once older than max-age-seconds (which bounds staleness from changes made on other
+ * instances). Only loads made outside any caller's transaction are kept, as plain VetSummary copies of
+ * committed rows.
+ * A caller inside a transaction never waits on a load in a second transaction, which would hold a
+ * second pool connection for every booking that finds the directory cold: it gets the expired copy
+ * while the reload runs, or, with no copy at all, reads the vets on its own connection for itself.
+ */
+@Component
+public class VetDirectory implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VetDirectory.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate loader;
+    private final ExecutorService refresher;
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+    private final long maxAgeNanos;
+    private volatile Snapshot snapshot;
+    private long generation;
+
+    public VetDirectory(UserRepository userRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${pawcare.vets.directory.max-age-seconds:300}") long maxAgeSeconds) {
+        this.userRepository = userRepository;
+        // Not read-only on purpose: that would route to the replica, which may not have the change
+        // that dropped the snapshot yet, and the stale copy would then be served for max-age-seconds
+        this.loader = new TransactionTemplate(transactionManager);
+        this.refresher = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "vet-directory");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxAgeNanos = Duration.ofSeconds(maxAgeSeconds).toNanos();
+    }
+
+    public Optional<VetSummary> byId(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    public Optional<VetSummary> byUsername(String username) {
+        return username == null ? Optional.empty()
+                : Optional.ofNullable(snapshot().byUsername().get(username.toLowerCase(Locale.ROOT)));
+    }
+
+    // Appointments store the account's name as written here, so filters can match it exactly
+    public Optional<VetSummary> byName(String name) {
+        return name == null ? Optional.empty()
+                : Optional.ofNullable(snapshot().byName().get(name.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    public List<VetSummary> active() {
+        return snapshot().active();
+    }
+
+    public boolean contains(Long id) {
+        return id != null && snapshot().byId().containsKey(id);
+    }
+
+    // Drops the snapshot once the caller's transaction commits (right away when there is none)
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        load();
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    // The reload is left to the background thread: afterCommit still holds the writer's connection
+    private void clear() {
+        synchronized (this) {
+            generation++;
+            snapshot = null;
+        }
+        refreshAsync();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current != null && System.nanoTime() - current.loadedAt() < maxAgeNanos) {
+            return current;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return load();
+        }
+        refreshAsync();
+        if (current != null) {
+            return current;
+        }
+        // Joins the caller's transaction and may see its uncommitted rows, so it is never kept
+        return Snapshot.of(readVets());
+    }
+
+    private void refreshAsync() {
+        if (!refreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load();
+                } catch (RuntimeException e) {
+                    log.warn("Reloading the vet directory failed; the next lookup retries", e);
+                } finally {
+                    refreshQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshQueued.set(false);  // shutting down
+        }
+    }
+
+    // Outside any caller's transaction only, so the loader's transaction is the only one on this thread
+    private Snapshot load() {
+        long loadingGeneration;
+        synchronized (this) {
+            loadingGeneration = generation;
+        }
+        Snapshot loaded = loader.execute(status -> Snapshot.of(readVets()));
+        synchronized (this) {
+            // A change that committed while we were reading wins; this load serves only its caller
+            if (generation == loadingGeneration) {
+                snapshot = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private List<VetSummary> readVets() {
+        return userRepository.findByRoleIgnoreCaseOrderById("vet").stream().map(VetSummary::of).toList();
+    }
+
+    private record Snapshot(Map<Long, VetSummary> byId, Map<String, VetSummary> byUsername,
+                            Map<String, VetSummary> byName, List<VetSummary> active, long loadedAt) {
+        static Snapshot of(List<VetSummary> vets) {
+            return new Snapshot(
+                    vets.stream().collect(Collectors.toUnmodifiableMap(VetSummary::id, Function.identity())),
+                    vets.stream().collect(Collectors.toUnmodifiableMap(
+                            v -> v.username().toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a)),
+                    vets.stream().filter(v -> v.name() != null).collect(Collectors.toUnmodifiableMap(
+                            v -> v.name().toLowerCase(Locale.ROOT), Function.identity(), (a, b) -> a)),
+                    vets.stream().filter(VetSummary::active).toList(),
+                    System.nanoTime());
+        }
+    }
+}
@@ -1,22 +1,34 @@
 package com.pawcare.web;
 
 import com.pawcare.entity.*;
+import com.pawcare.repository.AppointmentRepository.AppointmentRow;
+import com.pawcare.repository.PetRepository.PetRow;
+import com.pawcare.repository.PrescriptionRepository.PrescriptionRow;
 import com.pawcare.service.PawCareService;
 import com.pawcare.security.PawCareUserDetails;
+import com.pawcare.service.PhotoStore;
 import com.pawcare.service.ProcedureCatalogService;
+import com.pawcare.service.ReportRollupService;
+import com.pawcare.service.ThumbnailService;
+import com.pawcare.config.SqlRequestStats;
+import com.pawcare.dto.CursorPage;
 import com.pawcare.dto.ProcedureTemplate;
 import com.pawcare.dto.ReportSummary;
+import com.pawcare.dto.VetSummary;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
 import java.io.*;
-import java.nio.file.*;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -26,24 +38,42 @@ import java.util.stream.Collectors;
 public class ApiControllers {
 
     private final PawCareService pawCareService;
-    private final String uploadDir;
+    private final PhotoStore photoStore;
+    private final ThumbnailService thumbnailService;
     private final ProcedureCatalogService procedureCatalogService;
+    private final ReportRollupService reportRollupService;
+    private final int maxProcedureBatch;
 
     public ApiControllers(
             PawCareService pawCareService,
             ProcedureCatalogService procedureCatalogService,
-            @Value("${pawcare.upload-dir:uploads}") String uploadDir
+            ReportRollupService reportRollupService,
+            PhotoStore photoStore,
+            ThumbnailService thumbnailService,
+            @Value("${pawcare.procedures.batch.max-size:200}") int maxProcedureBatch
     ) {
         this.pawCareService = pawCareService;
         this.procedureCatalogService = procedureCatalogService;
-        this.uploadDir = (uploadDir == null || uploadDir.isBlank()) ? "uploads" : uploadDir;
-        new File(this.uploadDir).mkdirs();
+        this.reportRollupService = reportRollupService;
+        this.photoStore = photoStore;
+        this.thumbnailService = thumbnailService;
+        this.maxProcedureBatch = maxProcedureBatch;
     }
 
     /* --------- Pets --------- */
     @GetMapping("/pets")
     @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST','PHARMACIST')")
-    public List<Pet> listPets(){ return pawCareService.getAllPets(); }
+    public List<PetRow> listPets(){ return pawCareService.getAllPets(); }
+
+    @GetMapping("/pets/page")
+    @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST','PHARMACIST')")
+    public CursorPage<PetRow> pagePets(@RequestParam(required=false) Long cursor,
+                                       @RequestParam(defaultValue="25") int size,
+                                       @RequestParam(required=false) String species,
+                                       @RequestParam(required=false) String owner,
+                                       @RequestParam(required=false) String name){
+        return pawCareService.getPetPage(cursor, size, species, owner, name);
+    }
 
     @GetMapping("/pets/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST','PHARMACIST')")
@@ -61,12 +91,37 @@ public class ApiControllers {
 
     @PutMapping("/pets/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST')")
-    public ResponseEntity<Pet> updatePet(@PathVariable long id, @RequestBody Pet p){
-        if (pawCareService.getPetById(id).isEmpty()) return ResponseEntity.notFound().build();
-        // Ensure ID from path is used
-        p.setId(id);
-        if (p.getProcedures() == null) p.setProcedures(new ArrayList<>());
-        return ResponseEntity.ok(pawCareService.updatePet(id, p));
+    public ResponseEntity<?> updatePet(@PathVariable long id, @RequestBody Pet p){
+        try {
+            return pawCareService.updatePet(id, p).<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return staleVersion();
+        }
+    }
+
+    // Partial update: {"address": "..."} plus an optional "version" (or If-Match header) to guard against lost updates
+    @PatchMapping("/pets/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST')")
+    public ResponseEntity<?> patchPet(@PathVariable long id, @RequestBody Map<String, Object> body,
+                                      @RequestHeader(value = "If-Match", required = false) String ifMatch){
+        Map<String, Object> changes = new LinkedHashMap<>(body);
+        Object version = changes.remove("version");
+        try {
+            Long expectedVersion = ifMatch != null ? Long.valueOf(ifMatch.replace("\"", "").trim())
+                    : version instanceof Number n ? Long.valueOf(n.longValue()) : null;
+            return pawCareService.patchPet(id, changes, expectedVersion).<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return staleVersion();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<?> staleVersion() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Pet was changed by someone else; reload and try again"));
     }
 
     @DeleteMapping("/pets/{id}")
@@ -83,28 +138,82 @@ public class ApiControllers {
     }
 
     @PostMapping(value="/pets/{id}/photo", consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST')")
     public ResponseEntity<Map<String,String>> uploadPhoto(@PathVariable long id,
                       @RequestPart("file") MultipartFile file) throws IOException {
-        Pet pet = pawCareService.getPetById(id).orElse(null);
-        if (pet == null) return ResponseEntity.notFound().build();
+        if (!pawCareService.petExists(id)) return ResponseEntity.notFound().build();
+        if (file.getSize() > photoStore.getMaxBytes()) return photoError(HttpStatus.PAYLOAD_TOO_LARGE, "Photo exceeds " + photoStore.getMaxBytes() + " bytes");
+        try (InputStream in = file.getInputStream()) {
+            return storePhoto(id, in);
+        }
+    }
 
-        String filename = System.currentTimeMillis() + "_" +
-                StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-        Path dest = Path.of(uploadDir, filename);
-        Files.copy(file.getInputStream(), dest, StandardCopyOption.REPLACE_EXISTING);
-        pet.setPhoto("/uploads/" + filename);
-        pawCareService.updatePet(id, pet);
-        return ResponseEntity.ok(Map.of("url", pet.getPhoto()));
+    // Same as the multipart upload, but the image is the raw request body and is streamed straight into the store
+    @PutMapping(value="/pets/{id}/photo", consumes = {"image/jpeg", "image/png", "image/gif", "image/webp"})
+    @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST')")
+    public ResponseEntity<Map<String,String>> putPhoto(@PathVariable long id, HttpServletRequest request) throws IOException {
+        if (!pawCareService.petExists(id)) return ResponseEntity.notFound().build();
+        if (request.getContentLengthLong() > photoStore.getMaxBytes()) return photoError(HttpStatus.PAYLOAD_TOO_LARGE, "Photo exceeds " + photoStore.getMaxBytes() + " bytes");
+        return storePhoto(id, request.getInputStream());
     }
 
-    @PostMapping("/pets/{id}/procedures")
-    public ResponseEntity<Pet> addProcedure(@PathVariable long id, @RequestBody Procedure proc){
+    private ResponseEntity<Map<String,String>> storePhoto(long id, InputStream in) throws IOException {
+        String name;
         try {
-            Pet pet = pawCareService.addProcedureToPet(id, proc);
-            return ResponseEntity.ok(pet);
-        } catch (RuntimeException e) {
-            return ResponseEntity.notFound().build();
+            name = photoStore.store(in);
+        } catch (PhotoStore.TooLargeException e) {
+            return photoError(HttpStatus.PAYLOAD_TOO_LARGE, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return photoError(HttpStatus.BAD_REQUEST, e.getMessage());
         }
+        String url = "/uploads/" + name;
+        if (!pawCareService.updatePetPhoto(id, url)) return ResponseEntity.notFound().build();
+        thumbnailService.generateAsync(name);
+        return ResponseEntity.ok(Map.of("url", url));
+    }
+
+    private static ResponseEntity<Map<String,String>> photoError(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+
+    // Typed query parameters (dates, numbers) that do not parse; left alone they end up as a 403 from /error
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String,String>> badParameter(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Invalid value for parameter '" + e.getName() + "'"));
+    }
+
+    @GetMapping("/pets/{id}/procedures")
+    @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST','PHARMACIST')")
+    public ResponseEntity<?> procedureHistory(@PathVariable long id,
+                                              @RequestParam(required=false) Long cursor,
+                                              @RequestParam(defaultValue="20") int size,
+                                              @RequestParam(required=false) String category,
+                                              @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        try {
+            return pawCareService.getProcedureHistory(id, cursor, size, category, from, to)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/pets/{id}/procedures")
+    public ResponseEntity<Procedure> addProcedure(@PathVariable long id, @RequestBody Procedure proc){
+        return pawCareService.addProcedureToPet(id, proc).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // All procedures of one visit, inserted together
+    @PostMapping("/pets/{id}/procedures/batch")
+    @PreAuthorize("hasAnyRole('ADMIN','VET','RECEPTIONIST')")
+    public ResponseEntity<?> addProcedures(@PathVariable long id, @RequestBody List<Procedure> procs){
+        if (procs.size() > maxProcedureBatch) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxProcedureBatch + " procedures per batch"));
+        }
+        return pawCareService.addProceduresToPet(id, procs).<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/procedures/catalog")
@@ -121,28 +230,12 @@ public class ApiControllers {
     /* --------- Appointments --------- */
     @GetMapping("/appointments")
     @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST','VET')")
-    public List<Appointment> listAppts(@AuthenticationPrincipal PawCareUserDetails principal,
-                                       @RequestParam(required=false) String vet,
-                                       @RequestParam(required=false) Boolean unassigned){
-        List<Appointment> all = pawCareService.getAllAppointments();
-        String role = principal.getUser().getRole();
-        Long userId = principal.getUser().getId();
-        
-        // Vets can only see appointments assigned to them (by assignedVetId)
-        if ("vet".equalsIgnoreCase(role)) {
-            return all.stream()
-                    .filter(a -> userId.equals(a.getAssignedVetId()))
-                    .toList();
-        }
-        
-        // Admin and Receptionist can see all, but can filter
-        if (vet != null && !vet.isBlank()) {
-            all = all.stream().filter(a -> vet.equalsIgnoreCase(Objects.toString(a.getVet(), ""))).toList();
-        }
-        if (Boolean.TRUE.equals(unassigned)) {
-            all = all.stream().filter(a -> a.getAssignedVetId() == null || a.getVetUsername() == null || a.getVetUsername().isBlank()).toList();
-        }
-        return all;
+    public List<AppointmentRow> listAppts(@AuthenticationPrincipal PawCareUserDetails principal,
+                                          @RequestParam(required=false) String vet,
+                                          @RequestParam(required=false) Boolean unassigned,
+                                          @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        return pawCareService.getAppointmentsFor(principal.getUser(), vet, unassigned, from, to);
     }
 
     @PostMapping("/appointments")
@@ -209,7 +302,7 @@ public class ApiControllers {
     /* --------- Prescriptions --------- */
     @GetMapping("/prescriptions")
     @PreAuthorize("hasAnyRole('ADMIN','VET','PHARMACIST')")
-    public List<Prescription> listRx(){ return pawCareService.getAllPrescriptions(); }
+    public List<PrescriptionRow> listRx(){ return pawCareService.getAllPrescriptions(); }
 
     @GetMapping("/prescriptions/{id}")
     @PreAuthorize("hasAnyRole('ADMIN','VET','PHARMACIST')")
@@ -271,7 +364,7 @@ public class ApiControllers {
 
     @GetMapping("/users/vets")
     @PreAuthorize("hasAnyRole('ADMIN','RECEPTIONIST')")
-    public List<User> listVets(){ return pawCareService.getActiveVets(); }
+    public List<VetSummary> listVets(){ return pawCareService.getActiveVets(); }
 
     @PutMapping("/users/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -294,19 +387,57 @@ public class ApiControllers {
     @GetMapping("/ops/log")
     @PreAuthorize("hasRole('ADMIN')")
     public List<OperationLog> opsLog(
-            @RequestParam String from,
-            @RequestParam String to
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ){
-        LocalDate f = LocalDate.parse(from);
-        LocalDate t = LocalDate.parse(to);
-        return pawCareService.getOperationLogsBetween(f, t);
+        return pawCareService.getOperationLogsBetween(from, to);
+    }
+
+    @GetMapping("/ops/log/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<OperationLog> opsLogPage(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                               @RequestParam(required=false) Long cursor,
+                                               @RequestParam(defaultValue="200") int size){
+        return pawCareService.getOperationLogPage(from, to, cursor, size);
+    }
+
+    @GetMapping(value="/ops/log/export", produces="text/csv")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> opsLogExport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, java.nio.charset.StandardCharsets.UTF_8));
+            writer.write("id,timestamp,type,petId,message\n");
+            pawCareService.exportOperationLogs(from, to, log -> {
+                try {
+                    writer.write(log.getId() + "," + log.getTs() + "," + csv(log.getType()) + ","
+                            + Objects.toString(log.getPetId(), "") + "," + csv(log.getMessage()) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"operation-log-" + from + "_" + to + ".csv\"")
+                .body(SqlRequestStats.propagate(body));
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
     }
 
     @GetMapping("/reports/summary")
     @PreAuthorize("hasRole('ADMIN')")
     public ReportSummary summary(@RequestParam String period,
-                                 @RequestParam(required=false) String from,
-                                 @RequestParam(required=false) String to){
+                                 @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                 @RequestParam(required=false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
         LocalDate today = LocalDate.now();
         LocalDate start, end;
 
@@ -315,12 +446,20 @@ public class ApiControllers {
             case "week" -> { start = today.minusDays(6); end = today; }
             case "month" -> { start = today.withDayOfMonth(1); end = today; }
             case "custom" -> {
-                start = LocalDate.parse(Objects.requireNonNull(from));
-                end   = LocalDate.parse(Objects.requireNonNull(to));
+                start = Objects.requireNonNull(from);
+                end   = Objects.requireNonNull(to);
             }
             default -> throw new IllegalArgumentException("Invalid period");
         }
 
         return pawCareService.generateReportSummary(period, start, end);
     }
+
+    @PostMapping("/reports/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String,String>> rebuildRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to){
+        reportRollupService.rebuild(from, to);
+        return ResponseEntity.ok(Map.of("status", "ok", "from", from.toString(), "to", to.toString()));
+    }
 }
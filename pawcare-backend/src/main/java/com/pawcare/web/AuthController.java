@@ -3,83 +3,128 @@ package com.pawcare.web;
 import com.pawcare.entity.User;
 import com.pawcare.repository.UserRepository;
 import com.pawcare.security.JwtService;
-import com.pawcare.security.PawCareUserDetails;
+import com.pawcare.security.LoginThrottle;
+import com.pawcare.security.PasswordHashingExecutor;
+import com.pawcare.security.PrincipalCache;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
 @Validated
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final PasswordHashingExecutor passwordHashing;
+    private final LoginThrottle loginThrottle;
 
-    public AuthController(AuthenticationManager authenticationManager,
-                          JwtService jwtService,
+    public AuthController(JwtService jwtService,
                           UserRepository userRepository,
-                          PasswordEncoder passwordEncoder) {
-        this.authenticationManager = authenticationManager;
+                          PrincipalCache principalCache,
+                          PasswordHashingExecutor passwordHashing,
+                          LoginThrottle loginThrottle) {
         this.jwtService = jwtService;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.passwordHashing = passwordHashing;
+        this.loginThrottle = loginThrottle;
     }
 
+    // The user lookup and BCrypt run on the hashing pool; the request thread is released meanwhile
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request, HttpServletRequest http) {
+        String ip = http.getRemoteAddr();
+        if (!loginThrottle.tryAcquire(request.username(), ip)) {
+            return CompletableFuture.completedFuture(tooManyAttempts());
+        }
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.username(), request.password())
-            );
-            PawCareUserDetails principal = (PawCareUserDetails) authentication.getPrincipal();
-            User user = principal.getUser();
-            if (!user.isActive()) {
-                throw new BadCredentialsException("User inactive");
-            }
-            String token = jwtService.generateToken(
-                    user.getUsername(),
-                    Map.of(
-                            "role", user.getRole(),
-                            "name", user.getName(),
-                            "userId", user.getId()
-                    )
-            );
-            return ResponseEntity.ok(Map.of(
-                    "token", token,
-                    "user", Map.of(
-                            "id", user.getId(),
-                            "username", user.getUsername(),
-                            "name", user.getName(),
-                            "role", user.getRole(),
-                            "email", user.getEmail()
-                    )
-            ));
-        } catch (BadCredentialsException ex) {
-            return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
+            return passwordHashing.submit(() -> {
+                User user = userRepository.findByUsernameIgnoreCase(request.username()).orElse(null);
+                boolean matched = passwordHashing.matches(request.password(), user != null ? user.getPasswordHash() : null);
+                if (!matched || !user.isActive()) {
+                    return ResponseEntity.status(401).body(Map.of("error", "Invalid username or password"));
+                }
+                loginThrottle.recordSuccess(request.username(), ip);
+                // Rehash with the current algorithm/cost while the plain password is at hand
+                if (passwordHashing.needsUpgrade(user.getPasswordHash())) {
+                    userRepository.updatePasswordHash(user.getId(), user.getPasswordHash(),
+                            passwordHashing.encode(request.password()));
+                }
+                return ResponseEntity.ok(loginResponse(user));
+            });
+        } catch (RejectedExecutionException ex) {
+            loginThrottle.release(request.username(), ip);
+            return CompletableFuture.completedFuture(busy());
         }
     }
 
+    private Map<String, Object> loginResponse(User user) {
+        String token = jwtService.generateToken(
+                user.getUsername(),
+                Map.of(
+                        "role", user.getRole(),
+                        "name", user.getName(),
+                        "userId", user.getId()
+                )
+        );
+        // email is optional on users, so no Map.of here
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("id", user.getId());
+        profile.put("username", user.getUsername());
+        profile.put("name", user.getName());
+        profile.put("role", user.getRole());
+        profile.put("email", user.getEmail());
+        return Map.of(
+                "token", token,
+                "user", profile
+        );
+    }
+
     @PostMapping("/change-password")
-    public ResponseEntity<?> changePassword(@RequestBody ChangePasswordRequest request) {
-        User user = userRepository.findByUsernameIgnoreCase(request.username())
-                .orElseThrow(() -> new BadCredentialsException("User not found"));
-        if (!passwordEncoder.matches(request.oldPassword(), user.getPasswordHash())) {
-            throw new BadCredentialsException("Invalid current password");
+    public CompletableFuture<ResponseEntity<?>> changePassword(@RequestBody ChangePasswordRequest request, HttpServletRequest http) {
+        String ip = http.getRemoteAddr();
+        if (!loginThrottle.tryAcquire(request.username(), ip)) {
+            return CompletableFuture.completedFuture(tooManyAttempts());
+        }
+        try {
+            return passwordHashing.submit(() -> {
+                User user = userRepository.findByUsernameIgnoreCase(request.username()).orElse(null);
+                if (!passwordHashing.matches(request.oldPassword(), user != null ? user.getPasswordHash() : null)) {
+                    return ResponseEntity.status(403).body(Map.of("error", "Invalid current password"));
+                }
+                loginThrottle.recordSuccess(request.username(), ip);
+                user.setPasswordHash(passwordHashing.encode(request.newPassword()));
+                userRepository.save(user);
+                principalCache.evictUser(user.getId());
+                return ResponseEntity.ok(Map.of("status", "ok"));
+            });
+        } catch (RejectedExecutionException ex) {
+            loginThrottle.release(request.username(), ip);
+            return CompletableFuture.completedFuture(busy());
         }
-        user.setPasswordHash(passwordEncoder.encode(request.newPassword()));
-        userRepository.save(user);
-        return ResponseEntity.ok(Map.of("status", "ok"));
+    }
+
+    private ResponseEntity<?> tooManyAttempts() {
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginThrottle.getWindowSeconds()))
+                .body(Map.of("error", "Too many attempts, please try again later"));
+    }
+
+    private ResponseEntity<?> busy() {
+        return ResponseEntity.status(503)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", "Sign-in is busy, please try again shortly"));
     }
 
     public record LoginRequest(@NotBlank String username, @NotBlank String password) {}
@@ -0,0 +1,51 @@
+package com.pawcare.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "pawcare.sql.budget.endpoints[/api/pets]=0")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class SqlBudgetFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void publishesAnEventWhenARequestRunsOverItsBudget() throws Exception {
+        mockMvc.perform(get("/api/pets")).andExpect(status().isOk());
+
+        assertThat(events.stream(SqlBudgetExceededEvent.class))
+                .singleElement()
+                .satisfies(exceeded -> {
+                    assertThat(exceeded.method()).isEqualTo("GET");
+                    assertThat(exceeded.uri()).isEqualTo("/api/pets");
+                    assertThat(exceeded.limit()).isZero();
+                    assertThat(exceeded.statements()).isPositive();
+                });
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void staysQuietWithinTheBudget() throws Exception {
+        mockMvc.perform(get("/api/pets/page").param("size", "10")).andExpect(status().isOk());
+
+        assertThat(events.stream(SqlBudgetExceededEvent.class)).isEmpty();
+    }
+}
@@ -0,0 +1,36 @@
+package com.pawcare.service;
+
+import com.pawcare.entity.User;
+import com.pawcare.repository.AppointmentRepository.AppointmentRow;
+import com.pawcare.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AppointmentVetFilterTest {
+
+    @Autowired
+    private PawCareService pawCareService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void matchesTheVetNameWhateverItsCase() {
+        User admin = userRepository.findByUsernameIgnoreCase("admin").orElseThrow();
+
+        List<AppointmentRow> exact = pawCareService.getAppointmentsFor(admin, "Dr. Cruz", null, null, null);
+        List<AppointmentRow> lowerCase = pawCareService.getAppointmentsFor(admin, " dr. cruz", null, null, null);
+
+        assertThat(exact).isNotEmpty();
+        assertThat(lowerCase).extracting(AppointmentRow::getId)
+                .containsExactlyElementsOf(exact.stream().map(AppointmentRow::getId).toList());
+    }
+}
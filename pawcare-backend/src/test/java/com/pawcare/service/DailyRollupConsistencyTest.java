@@ -0,0 +1,130 @@
+package com.pawcare.service;
+
+import com.pawcare.entity.Appointment;
+import com.pawcare.entity.Pet;
+import com.pawcare.entity.Prescription;
+import com.pawcare.entity.Procedure;
+import com.pawcare.entity.User;
+import com.pawcare.repository.DailyRollupRepository.Totals;
+import com.pawcare.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Each change goes through PawCareService, which bumps the daily rollups incrementally; the sums
+ * must then equal what a full rebuild from the raw tables produces.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DailyRollupConsistencyTest {
+
+    private static final LocalDate FROM = LocalDate.of(2000, 1, 1);
+
+    @Autowired
+    private PawCareService pawCareService;
+
+    @Autowired
+    private ReportRollupService reportRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User admin;
+
+    @BeforeEach
+    void loadAdmin() {
+        admin = userRepository.findByUsernameIgnoreCase("admin").orElseThrow();
+    }
+
+    @Test
+    void approvingAFinishedAppointmentTakesItOutOfTheRollups() {
+        Pet pet = pawCareService.savePet(pet("Biscuit"));
+        Appointment appointment = book(pet, "09:00");
+        pawCareService.addProcedureToPet(pet.getId(), procedure("450.00"));
+        pawCareService.markAppointmentDone(appointment.getId(), admin);
+        long doneBefore = totals().getAppointmentsDone();
+
+        pawCareService.approveAppointment(appointment.getId(), admin);
+
+        assertThat(totals().getAppointmentsDone()).isEqualTo(doneBefore - 1);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void creatingADispensedPrescriptionCountsIt() {
+        Pet pet = pawCareService.savePet(pet("Pepper"));
+        Prescription prescription = new Prescription(pet.getId(), pet.getName(), pet.getOwner(),
+                "Amoxicillin", "250 mg", "Twice daily", "Dr. Cruz", LocalDate.now());
+        prescription.setVetId(admin.getId());
+        prescription.setDispensed(true);
+        prescription.setDispensedAt(LocalDate.now());
+        long dispensedBefore = totals().getPrescriptionsDispensed();
+
+        pawCareService.savePrescription(prescription);
+
+        assertThat(totals().getPrescriptionsDispensed()).isEqualTo(dispensedBefore + 1);
+        assertMatchesRebuild();
+    }
+
+    @Test
+    void deletingAPetTakesItsRevenueOutOfTheRollups() {
+        Pet pet = pawCareService.savePet(pet("Mochi"));
+        Appointment appointment = book(pet, "10:30");
+        pawCareService.addProcedureToPet(pet.getId(), procedure("1200.00"));
+        pawCareService.markAppointmentDone(appointment.getId(), admin);
+        // The appointments table references pets, so the finished visit goes first
+        pawCareService.deleteAppointment(appointment.getId(), admin);
+        pawCareService.addProcedureToPet(pet.getId(), procedure("300.00"));
+        long petsBefore = totals().getPetsAdded();
+
+        pawCareService.deletePet(pet.getId());
+
+        assertThat(totals().getPetsAdded()).isEqualTo(petsBefore - 1);
+        assertMatchesRebuild();
+    }
+
+    private void assertMatchesRebuild() {
+        Totals incremental = totals();
+        reportRollupService.rebuild(FROM, to());
+        Totals rebuilt = totals();
+        assertThat(incremental.getAppointmentsDone()).isEqualTo(rebuilt.getAppointmentsDone());
+        assertThat(incremental.getPrescriptionsDispensed()).isEqualTo(rebuilt.getPrescriptionsDispensed());
+        assertThat(incremental.getPetsAdded()).isEqualTo(rebuilt.getPetsAdded());
+        assertThat(incremental.getRevenue()).isEqualByComparingTo(rebuilt.getRevenue());
+    }
+
+    private Totals totals() {
+        return reportRollupService.totals(FROM, to());
+    }
+
+    private static LocalDate to() {
+        return LocalDate.now().plusDays(1);
+    }
+
+    private static Pet pet(String name) {
+        return new Pet(name, "Canine", "Beagle", "Female", 3, "", "Ana Reyes", "12 Mabini St.", "N/A");
+    }
+
+    private Appointment book(Pet pet, String time) {
+        Appointment appointment = new Appointment(pet.getId(), pet.getOwner(), LocalDate.now().plusDays(3), time,
+                "drcruz", "Dr. Cruz", null);
+        return pawCareService.saveAppointment(appointment, admin);
+    }
+
+    private static Procedure procedure(String cost) {
+        Procedure procedure = new Procedure();
+        procedure.setDate(LocalDate.now());
+        procedure.setCategory("Consultation");
+        procedure.setProcedure("Check-up");
+        procedure.setCost(new BigDecimal(cost));
+        return procedure;
+    }
+}
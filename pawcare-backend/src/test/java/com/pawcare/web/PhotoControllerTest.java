@@ -0,0 +1,54 @@
+package com.pawcare.web;
+
+import com.pawcare.service.PhotoStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PhotoControllerTest {
+
+    // Smallest byte sequence PhotoStore accepts as a GIF
+    private static final byte[] GIF = {'G', 'I', 'F', '8', '9', 'a', 1, 0, 1, 0, 0, 0, 0, ';'};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PhotoStore photoStore;
+
+    private String name;
+
+    @BeforeEach
+    void storePhoto() throws Exception {
+        name = photoStore.store(new ByteArrayInputStream(GIF));
+    }
+
+    @Test
+    void refusesAnonymousRequests() throws Exception {
+        mockMvc.perform(get("/uploads/" + name)).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser
+    void servesSignedInUsersWithAPrivateCachePolicy() throws Exception {
+        mockMvc.perform(get("/uploads/" + name))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable"))
+                .andExpect(header().string(HttpHeaders.ETAG, PhotoStore.etag(name)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.pawcare.web;
+
+import com.pawcare.entity.Pet;
+import com.pawcare.entity.Procedure;
+import com.pawcare.repository.PetRepository;
+import com.pawcare.service.PawCareService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "VET")
+class ProcedureHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PawCareService pawCareService;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    private Long petId;
+    private Long otherPetId;
+    private Long otherPetProcedureId;
+
+    @BeforeEach
+    void addProcedures() {
+        List<Pet> pets = petRepository.findAll();
+        petId = pets.get(0).getId();
+        otherPetId = pets.get(1).getId();
+        pawCareService.addProcedureToPet(petId, new Procedure(LocalDate.now(), "Checkup", "", "Dr. Cruz"));
+        otherPetProcedureId = pawCareService.addProcedureToPet(otherPetId,
+                new Procedure(LocalDate.now(), "Checkup", "", "Dr. Cruz")).orElseThrow().getId();
+    }
+
+    @Test
+    void rejectsACursorFromAnotherPet() throws Exception {
+        mockMvc.perform(get("/api/pets/" + petId + "/procedures").param("cursor", otherPetProcedureId.toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/pets/" + otherPetId + "/procedures").param("cursor", otherPetProcedureId.toString()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void rejectsDatesThatDoNotParse() throws Exception {
+        mockMvc.perform(get("/api/pets/" + petId + "/procedures").param("from", "2024-13-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid value for parameter 'from'"));
+        mockMvc.perform(get("/api/pets/" + petId + "/procedures").param("from", LocalDate.now().toString()))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,54 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.PawcareApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Boots the backend (h2 profile) against a private in-memory database, one per benchmark trial.
+ * Settings go in as command-line arguments so they win over application-h2.properties.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final ConfigurableApplicationContext context;
+
+    BenchmarkContext(String... extraArgs) {
+        String url = "jdbc:h2:mem:bench" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=h2",
+                "--spring.datasource.url=" + url,
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--logging.level.root=WARN",
+                // No scheduled rollup rebuilds in the middle of a measurement
+                "--pawcare.reports.rollup-rebuild-cron=-"
+        ));
+        args.addAll(List.of(extraArgs));
+        this.context = new SpringApplicationBuilder(PawcareApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(String[]::new));
+    }
+
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
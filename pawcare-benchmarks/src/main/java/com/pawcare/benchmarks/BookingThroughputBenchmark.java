@@ -0,0 +1,100 @@
+package com.pawcare.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load test: concurrent POST /api/appointments over HTTP, with request handling on Tomcat's
+ * platform-thread pool vs virtual threads (spring.threads.virtual.enabled). Every booking takes a
+ * fresh slot, so each request does the full validate, slot check, insert and audit path.
+ * Virtual threads need a Java 21 runtime; on older JVMs both modes run on platform threads.
+ * Raise client concurrency with -t, e.g. -t 512 to go past Tomcat's 200 worker threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class BookingThroughputBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    // Small pool, so requests queue for connections the way they do against a busy MySQL
+    @Param({"10"})
+    public int poolSize;
+
+    private static final int VETS = 8;
+
+    private final AtomicInteger bookings = new AtomicInteger();
+    private BenchmarkContext context;
+    private HttpClient client;
+    private URI appointments;
+    private String authorization;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            System.err.println("Virtual threads need Java 21+; this run uses platform threads for both modes");
+        }
+        context = new BenchmarkContext(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                // Measure queueing for connections, not the fail-fast timeout
+                "--spring.datasource.hikari.connection-timeout=30000");
+        new DataGenerator().seed(context, new DataGenerator.Scale(100, 1, VETS));
+
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String base = "http://localhost:" + context.port();
+        appointments = URI.create(base + "/api/appointments");
+        HttpResponse<String> login = client.send(HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode body = new ObjectMapper().readTree(login.body());
+        authorization = "Bearer " + body.get("token").asText();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int book() throws IOException, InterruptedException {
+        int booking = bookings.getAndIncrement();
+        int slot = booking / VETS;
+        LocalDate date = DataGenerator.ANCHOR.plusDays(1 + slot / DataGenerator.SLOTS_PER_DAY);
+        LocalTime time = LocalTime.of(8, 0).plusMinutes(30L * (slot % DataGenerator.SLOTS_PER_DAY));
+        String json = String.format("{\"petId\":1,\"owner\":\"Owner 0\",\"date\":\"%s\",\"time\":\"%s\",\"vetUsername\":\"%s\"}",
+                date, time, DataGenerator.vetUsername(booking % VETS));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(appointments)
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", authorization)
+                        .POST(HttpRequest.BodyPublishers.ofString(json))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Booking failed with HTTP " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,317 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.dto.ProcedureTemplate;
+import com.pawcare.entity.Appointment;
+import com.pawcare.entity.Pet;
+import com.pawcare.entity.Prescription;
+import com.pawcare.entity.Procedure;
+import com.pawcare.repository.AppointmentRepository.AppointmentRow;
+import com.pawcare.repository.PetRepository.PetRow;
+import com.pawcare.repository.PrescriptionRepository.PrescriptionRow;
+import com.pawcare.service.ProcedureCatalogService;
+import com.pawcare.service.ReportRollupService;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic clinic data at a configurable scale.
+ * Database seeding goes through JDBC batches so large scales load in seconds; the entity
+ * factories build the same shapes in memory for benchmarks that do not need a database.
+ * Ids come from the entities' H2 sequences; each NEXT VALUE skips a whole pooled block, so they
+ * never collide with ids Hibernate hands out, but they are not contiguous.
+ */
+final class DataGenerator {
+
+    // Fixed so runs are comparable: all history ends here, report windows are taken backwards from it
+    static final LocalDate ANCHOR = LocalDate.of(2025, 12, 31);
+    static final int SLOTS_PER_DAY = 28; // 08:00 .. 21:30 every 30 minutes
+    static final String VET_PREFIX = "benchvet";
+
+    private static final String[] SPECIES = {"Canine", "Feline"};
+    private static final String[] BREEDS = {"Beagle", "Aspin", "Shih Tzu", "Persian", "Puspin", "Siamese"};
+    private static final int BATCH = 1000;
+    // Spring Data backs the list queries' projections with a map of the selected columns; same proxies here
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final ProcedureCatalogService catalog = new ProcedureCatalogService();
+
+    /**
+     * pets: number of patients; appointmentsPerPet: visits per patient, spread over vets and
+     * back in time from ANCHOR (all but the ANCHOR day are finished); vets: vet accounts sharing the load.
+     */
+    record Scale(int pets, int appointmentsPerPet, int vets) {
+        static Scale ofPets(int pets) {
+            return new Scale(pets, 4, 8);
+        }
+
+        static Scale ofAppointments(int appointments) {
+            return new Scale(Math.max(1, appointments / 4), 4, 8);
+        }
+
+        int appointments() {
+            return pets * appointmentsPerPet;
+        }
+
+        LocalDate firstDay() {
+            return ANCHOR.minusDays(dayOffset(appointments() - 1));
+        }
+
+        int dayOffset(int appointment) {
+            return (appointment / vets) / SLOTS_PER_DAY;
+        }
+    }
+
+    static String vetUsername(int vet) {
+        return VET_PREFIX + vet;
+    }
+
+    static String slotTime(int appointment, Scale scale) {
+        return LocalTime.of(8, 0).plusMinutes(30L * ((appointment / scale.vets()) % SLOTS_PER_DAY)).toString();
+    }
+
+    void seed(BenchmarkContext context, Scale scale) {
+        JdbcTemplate jdbc = context.bean(JdbcTemplate.class);
+        List<Long> vetIds = seedVets(jdbc, scale);
+        List<Long> petIds = seedPets(jdbc, scale);
+        seedVisits(jdbc, scale, vetIds, petIds);
+        context.bean(ReportRollupService.class).rebuild(scale.firstDay(), ANCHOR);
+    }
+
+    private List<Long> seedVets(JdbcTemplate jdbc, Scale scale) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int v = 0; v < scale.vets(); v++) {
+            rows.add(new Object[]{vetUsername(v), "Dr. Bench " + v, "vet", "{noop}unused", vetUsername(v) + "@pawcare.local", true});
+        }
+        jdbc.batchUpdate("INSERT INTO users (id, username, name, role, password_hash, email, active) "
+                + "VALUES (NEXT VALUE FOR users_seq, ?, ?, ?, ?, ?, ?)", rows);
+        return jdbc.queryForList("SELECT id FROM users WHERE username LIKE '" + VET_PREFIX + "%' ORDER BY id", Long.class);
+    }
+
+    private List<Long> seedPets(JdbcTemplate jdbc, Scale scale) {
+        List<Object[]> pets = new ArrayList<>(BATCH);
+        List<Object[]> logs = new ArrayList<>(BATCH);
+        for (int i = 0; i < scale.pets(); i++) {
+            Pet pet = pet(i);
+            pets.add(new Object[]{pet.getName(), pet.getSpecies(), pet.getBreed(), pet.getGender(), pet.getAge(),
+                    pet.getMicrochip(), pet.getOwner(), pet.getAddress(), pet.getFederation()});
+            if (pets.size() == BATCH) {
+                insertPets(jdbc, pets);
+            }
+        }
+        insertPets(jdbc, pets);
+        List<Long> ids = jdbc.queryForList("SELECT id FROM pets WHERE microchip LIKE 'GEN-%' ORDER BY id", Long.class);
+        for (int i = 0; i < ids.size(); i++) {
+            LocalDate created = ANCHOR.minusDays(i % 365);
+            logs.add(new Object[]{Timestamp.valueOf(created.atTime(9, 0)), "PET_CREATED", "Pet created: Pet " + i, ids.get(i)});
+            if (logs.size() == BATCH) {
+                insertLogs(jdbc, logs);
+            }
+        }
+        insertLogs(jdbc, logs);
+        return ids;
+    }
+
+    private void seedVisits(JdbcTemplate jdbc, Scale scale, List<Long> vetIds, List<Long> petIds) {
+        List<ProcedureTemplate> templates = catalog.all();
+        List<Object[]> appointments = new ArrayList<>(BATCH);
+        List<Object[]> procedures = new ArrayList<>(BATCH);
+        List<Object[]> prescriptions = new ArrayList<>(BATCH);
+        List<Object[]> logs = new ArrayList<>(BATCH);
+        for (int i = 0; i < scale.appointments(); i++) {
+            int petIndex = i % petIds.size();
+            int vet = i % scale.vets();
+            Long petId = petIds.get(petIndex);
+            LocalDate date = ANCHOR.minusDays(scale.dayOffset(i));
+            boolean done = date.isBefore(ANCHOR);
+            String vetName = "Dr. Bench " + vet;
+            appointments.add(new Object[]{petId, "Owner " + petIndex, "APPT-GEN-" + i, Date.valueOf(date), slotTime(i, scale),
+                    vetUsername(vet), vetIds.get(vet), vetName, done ? "Done" : "Approved", done ? Date.valueOf(date) : null});
+            if (done) {
+                ProcedureTemplate template = templates.get(i % templates.size());
+                procedures.add(new Object[]{Date.valueOf(date), template.name(), template.code(), vetName,
+                        template.category(), template.cost(), petId});
+                logs.add(new Object[]{Timestamp.valueOf(date.atTime(17, 0)), "APPT_DONE", "Appointment done for Owner " + petIndex, petId});
+                if (i % 3 == 0) {
+                    prescriptions.add(new Object[]{petId, "Pet " + petIndex, "Owner " + petIndex, "Amoxicillin", "250 mg",
+                            "Twice daily", vetName, Date.valueOf(date), true, Date.valueOf(date), vetIds.get(vet)});
+                }
+            }
+            if (appointments.size() == BATCH) {
+                flushVisits(jdbc, appointments, procedures, prescriptions, logs);
+            }
+        }
+        flushVisits(jdbc, appointments, procedures, prescriptions, logs);
+    }
+
+    private void flushVisits(JdbcTemplate jdbc, List<Object[]> appointments, List<Object[]> procedures,
+                             List<Object[]> prescriptions, List<Object[]> logs) {
+        if (!appointments.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO appointments (id, pet_id, owner, code, date, time, vet_username, assigned_vet_id, vet, status, completed_at) "
+                    + "VALUES (NEXT VALUE FOR appointments_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", appointments);
+            appointments.clear();
+        }
+        if (!procedures.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO procedures (id, procedure_date, procedure_name, procedure_code, vet, category, cost, pet_id) "
+                    + "VALUES (NEXT VALUE FOR procedures_seq, ?, ?, ?, ?, ?, ?, ?)", procedures);
+            procedures.clear();
+        }
+        if (!prescriptions.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO prescriptions (id, pet_id, pet, owner, drug, dosage, directions, prescriber, date, dispensed, dispensed_at, vet_id) "
+                    + "VALUES (NEXT VALUE FOR prescriptions_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", prescriptions);
+            prescriptions.clear();
+        }
+        insertLogs(jdbc, logs);
+    }
+
+    private void insertPets(JdbcTemplate jdbc, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("INSERT INTO pets (id, name, species, breed, gender, age, microchip, owner, address, federation) "
+                + "VALUES (NEXT VALUE FOR pets_seq, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    private void insertLogs(JdbcTemplate jdbc, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        jdbc.batchUpdate("INSERT INTO operation_logs (id, timestamp, operation_type, message, pet_id) "
+                + "VALUES (NEXT VALUE FOR operation_logs_seq, ?, ?, ?, ?)", rows);
+        rows.clear();
+    }
+
+    // In-memory shapes, matching what the list endpoints serialize
+
+    static Pet pet(int i) {
+        Pet pet = new Pet("Pet " + i, SPECIES[i % SPECIES.length], BREEDS[i % BREEDS.length], i % 2 == 0 ? "Female" : "Male",
+                1 + i % 15, "GEN-" + i, "Owner " + i, i + " Mabini St.", "N/A");
+        pet.setId((long) i + 1);
+        return pet;
+    }
+
+    List<Pet> pets(int count, int proceduresPerPet) {
+        List<ProcedureTemplate> templates = catalog.all();
+        List<Pet> pets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Pet pet = pet(i);
+            for (int p = 0; p < proceduresPerPet; p++) {
+                ProcedureTemplate template = templates.get((i + p) % templates.size());
+                Procedure procedure = new Procedure(ANCHOR.minusDays(p), template.name(), "Routine", "Dr. Bench " + p);
+                procedure.setId((long) i * proceduresPerPet + p + 1);
+                procedure.setProcedureCode(template.code());
+                procedure.setCategory(template.category());
+                procedure.setCost(template.cost());
+                procedure.setPet(pet);
+                pet.getProcedures().add(procedure);
+            }
+            pets.add(pet);
+        }
+        return pets;
+    }
+
+    static List<Appointment> appointments(int count) {
+        Scale scale = Scale.ofAppointments(count);
+        List<Appointment> appointments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int vet = i % scale.vets();
+            LocalDate date = ANCHOR.minusDays(scale.dayOffset(i));
+            Appointment appointment = new Appointment((long) (i % scale.pets()) + 1, "Owner " + (i % scale.pets()), date,
+                    slotTime(i, scale), vetUsername(vet), "Dr. Bench " + vet, date.isBefore(ANCHOR) ? "Done" : "Approved");
+            appointment.setId((long) i + 1);
+            appointment.setCode("APPT-GEN-" + i);
+            appointment.setAssignedVetId((long) vet + 1);
+            appointment.setCompletedAt(date.isBefore(ANCHOR) ? date : null);
+            appointments.add(appointment);
+        }
+        return appointments;
+    }
+
+    static List<Prescription> prescriptions(int count) {
+        List<Prescription> prescriptions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate date = ANCHOR.minusDays(i % 365);
+            Prescription prescription = new Prescription((long) i + 1, "Pet " + i, "Owner " + i, "Amoxicillin", "250 mg",
+                    "Twice daily", "Dr. Bench " + (i % 8), date);
+            prescription.setId((long) i + 1);
+            prescription.setDispensed(i % 2 == 0);
+            prescription.setDispensedAt(i % 2 == 0 ? date : null);
+            prescription.setAppointmentId((long) i + 1);
+            prescription.setVetId((long) (i % 8) + 1);
+            prescriptions.add(prescription);
+        }
+        return prescriptions;
+    }
+
+    // Projections of the same rows, as GET /api/pets, /api/appointments and /api/prescriptions return them
+
+    static List<PetRow> petRows(int count) {
+        List<PetRow> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Pet pet = pet(i);
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("id", pet.getId());
+            columns.put("name", pet.getName());
+            columns.put("species", pet.getSpecies());
+            columns.put("breed", pet.getBreed());
+            columns.put("gender", pet.getGender());
+            columns.put("age", pet.getAge());
+            columns.put("microchip", pet.getMicrochip());
+            columns.put("owner", pet.getOwner());
+            columns.put("address", pet.getAddress());
+            columns.put("federation", pet.getFederation());
+            columns.put("photo", pet.getPhoto());
+            columns.put("version", 0L);
+            rows.add(PROJECTIONS.createProjection(PetRow.class, columns));
+        }
+        return rows;
+    }
+
+    static List<AppointmentRow> appointmentRows(int count) {
+        List<AppointmentRow> rows = new ArrayList<>(count);
+        for (Appointment appointment : appointments(count)) {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("id", appointment.getId());
+            columns.put("petId", appointment.getPetId());
+            columns.put("owner", appointment.getOwner());
+            columns.put("code", appointment.getCode());
+            columns.put("date", appointment.getDate());
+            columns.put("time", appointment.getTime());
+            columns.put("vetUsername", appointment.getVetUsername());
+            columns.put("assignedVetId", appointment.getAssignedVetId());
+            columns.put("vet", appointment.getVet());
+            columns.put("status", appointment.getStatus());
+            columns.put("completedAt", appointment.getCompletedAt());
+            rows.add(PROJECTIONS.createProjection(AppointmentRow.class, columns));
+        }
+        return rows;
+    }
+
+    static List<PrescriptionRow> prescriptionRows(int count) {
+        List<PrescriptionRow> rows = new ArrayList<>(count);
+        for (Prescription prescription : prescriptions(count)) {
+            Map<String, Object> columns = new LinkedHashMap<>();
+            columns.put("id", prescription.getId());
+            columns.put("petId", prescription.getPetId());
+            columns.put("pet", prescription.getPet());
+            columns.put("owner", prescription.getOwner());
+            columns.put("drug", prescription.getDrug());
+            columns.put("dosage", prescription.getDosage());
+            columns.put("directions", prescription.getDirections());
+            columns.put("prescriber", prescription.getPrescriber());
+            columns.put("date", prescription.getDate());
+            columns.put("dispensed", prescription.isDispensed());
+            columns.put("dispensedAt", prescription.getDispensedAt());
+            columns.put("appointmentId", prescription.getAppointmentId());
+            columns.put("vetId", prescription.getVetId());
+            rows.add(PROJECTIONS.createProjection(PrescriptionRow.class, columns));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,79 @@
+package com.pawcare.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pawcare.dto.CursorPage;
+import com.pawcare.entity.Pet;
+import com.pawcare.entity.Procedure;
+import com.pawcare.repository.AppointmentRepository.AppointmentRow;
+import com.pawcare.repository.PetRepository.PetRow;
+import com.pawcare.repository.PrescriptionRepository.PrescriptionRow;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response bodies of GET /api/pets, GET /api/appointments, GET /api/prescriptions and one page of
+ * GET /api/pets/{id}/procedures, serialized with the same ObjectMapper defaults
+ * Spring Boot configures for the controllers. The lists are the row projections those endpoints
+ * return; petEntitiesBaseline serializes the same pets as entities for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Pet> petEntities;
+    private List<PetRow> pets;
+    private List<AppointmentRow> appointments;
+    private List<PrescriptionRow> prescriptions;
+    private CursorPage<Procedure> procedurePage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        // Pets carry procedures in memory, but the entity no longer serializes them
+        petEntities = new DataGenerator().pets(size, 3);
+        pets = DataGenerator.petRows(size);
+        appointments = DataGenerator.appointmentRows(size);
+        prescriptions = DataGenerator.prescriptionRows(size);
+        procedurePage = new CursorPage<>(new DataGenerator().pets(1, 20).get(0).getProcedures(), 1L, 20);
+    }
+
+    @Benchmark
+    public byte[] petList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pets);
+    }
+
+    @Benchmark
+    public byte[] petEntitiesBaseline() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(petEntities);
+    }
+
+    @Benchmark
+    public byte[] procedureHistoryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(procedurePage);
+    }
+
+    @Benchmark
+    public byte[] appointmentList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] prescriptionList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(prescriptions);
+    }
+}
@@ -0,0 +1,68 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.entity.User;
+import com.pawcare.security.JwtService;
+import com.pawcare.security.PawCareUserDetails;
+import com.pawcare.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token work in JwtAuthenticationFilter: the old per-call parser build against the
+ * pre-built parser in JwtService.verify, and the principal cache hit that skips parsing entirely.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final String SECRET = "ThisIsADevelopmentSecretKeyForPawCare2025!";
+
+    private JwtService jwtService;
+    private PrincipalCache principalCache;
+    private Key key;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 86400, new SimpleMeterRegistry());
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        token = jwtService.generateToken("drcruz", Map.of("role", "vet", "name", "Dr. Cruz", "userId", 2L));
+
+        User user = new User("drcruz", "Dr. Cruz", "vet");
+        user.setId(2L);
+        principalCache = new PrincipalCache(10_000, 300);
+        principalCache.put(token, new PawCareUserDetails(user), jwtService.verify(token).orElseThrow().expiresAt());
+    }
+
+    // How the filter parsed tokens before the parser was held by JwtService
+    @Benchmark
+    public String perCallParser() {
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return claims.getSubject();
+    }
+
+    @Benchmark
+    public JwtService.TokenClaims prebuiltParser() {
+        return jwtService.verify(token).orElseThrow();
+    }
+
+    @Benchmark
+    public Object principalCacheHit() {
+        return principalCache.get(token);
+    }
+}
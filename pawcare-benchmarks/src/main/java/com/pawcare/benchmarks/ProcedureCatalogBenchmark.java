@@ -0,0 +1,53 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.dto.ProcedureTemplate;
+import com.pawcare.service.ProcedureCatalogService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Catalog lookups done by enrichProcedureFromCatalog for every recorded procedure:
+ * by code first, then by category and name.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcedureCatalogBenchmark {
+
+    private ProcedureCatalogService catalog;
+    private String code;
+    private String category;
+    private String name;
+
+    @Setup
+    public void setUp() {
+        catalog = new ProcedureCatalogService();
+        List<ProcedureTemplate> templates = catalog.all();
+        ProcedureTemplate last = templates.get(templates.size() - 1);
+        code = last.code();
+        category = last.category();
+        // Lower-cased to exercise the case-insensitive match
+        name = last.name().toLowerCase();
+    }
+
+    @Benchmark
+    public Optional<ProcedureTemplate> findByCode() {
+        return catalog.findByCode(code);
+    }
+
+    @Benchmark
+    public Optional<ProcedureTemplate> findByCategoryAndName() {
+        return catalog.findByCategoryAndName(category, name);
+    }
+
+    @Benchmark
+    public List<ProcedureTemplate> byCategory() {
+        return catalog.byCategory(category);
+    }
+}
@@ -0,0 +1,78 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.entity.Procedure;
+import com.pawcare.service.PawCareService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One addProceduresToPet call inserting 10k procedures. Pooled sequence ids let Hibernate send the
+ * INSERTs as JDBC batches; batchSize=1 turns batching off for comparison. The statements counter is
+ * Hibernate's prepared-statement count, summed over the measured calls: about one per row unbatched,
+ * one per batch plus one sequence call per 50 ids when batched.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcedureInsertBenchmark {
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"10000"})
+    public int procedures;
+
+    private BenchmarkContext context;
+    private PawCareService service;
+    private Statistics statistics;
+    private Long petId;
+    private List<Procedure> visit;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long statements;
+        public long inserts;
+    }
+
+    @Setup
+    public void setUp() {
+        context = new BenchmarkContext("--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        service = context.bean(PawCareService.class);
+        statistics = context.bean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        petId = service.getAllPets().get(0).getId();
+    }
+
+    @Setup(Level.Invocation)
+    public void newVisit() {
+        visit = new ArrayList<>(procedures);
+        for (int i = 0; i < procedures; i++) {
+            Procedure procedure = new Procedure(DataGenerator.ANCHOR, "Bulk " + i, "Routine", "Dr. Bench 0");
+            procedure.setProcedureCode("CONSULT_STANDARD");
+            visit.add(procedure);
+        }
+        statistics.clear();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Procedure> addProcedures(Counters counters) {
+        List<Procedure> saved = service.addProceduresToPet(petId, visit).orElseThrow();
+        counters.statements += statistics.getPrepareStatementCount();
+        counters.inserts += statistics.getEntityInsertCount();
+        return saved;
+    }
+}
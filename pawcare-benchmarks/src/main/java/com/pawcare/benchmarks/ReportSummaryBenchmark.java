@@ -0,0 +1,49 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.dto.ReportSummary;
+import com.pawcare.service.PawCareService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * generateReportSummary over seeded clinics of different sizes, for a month and for a year.
+ * Override the scale with -p pets=...
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportSummaryBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int pets;
+
+    @Param({"30", "365"})
+    public int windowDays;
+
+    private BenchmarkContext context;
+    private PawCareService service;
+    private LocalDate start;
+
+    @Setup
+    public void setUp() {
+        context = new BenchmarkContext();
+        new DataGenerator().seed(context, DataGenerator.Scale.ofPets(pets));
+        service = context.bean(PawCareService.class);
+        start = DataGenerator.ANCHOR.minusDays(windowDays - 1L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReportSummary generateReportSummary() {
+        return service.generateReportSummary("custom", start, DataGenerator.ANCHOR);
+    }
+}
@@ -0,0 +1,73 @@
+package com.pawcare.benchmarks;
+
+import com.pawcare.entity.Appointment;
+import com.pawcare.entity.User;
+import com.pawcare.repository.AppointmentRepository;
+import com.pawcare.service.PawCareService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Double-booking check as appointment history grows. With the (vet_username, date, time) unique
+ * index the cost should stay flat from a thousand to a few hundred thousand appointments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotCheckBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int appointments;
+
+    private BenchmarkContext context;
+    private PawCareService service;
+    private AppointmentRepository appointmentRepository;
+    private User vet;
+    private String takenTime;
+    private LocalDate freeDate;
+
+    @Setup
+    public void setUp() {
+        context = new BenchmarkContext();
+        DataGenerator.Scale scale = DataGenerator.Scale.ofAppointments(appointments);
+        new DataGenerator().seed(context, scale);
+        service = context.bean(PawCareService.class);
+        appointmentRepository = context.bean(AppointmentRepository.class);
+
+        vet = new User(DataGenerator.vetUsername(0), "Dr. Bench 0", "vet");
+        takenTime = DataGenerator.slotTime(0, scale);
+        freeDate = DataGenerator.ANCHOR.plusDays(30);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean existsTakenSlot() {
+        return appointmentRepository.existsByVetUsernameAndDateAndTime(vet.getUsername(), DataGenerator.ANCHOR, takenTime);
+    }
+
+    @Benchmark
+    public boolean existsFreeSlot() {
+        return appointmentRepository.existsByVetUsernameAndDateAndTime(vet.getUsername(), freeDate, takenTime);
+    }
+
+    // Full booking path up to the rejection: validation, permissions, ensureSlotAvailable, rollback
+    @Benchmark
+    public String bookTakenSlot() {
+        Appointment request = new Appointment(1L, "Owner 0", DataGenerator.ANCHOR, takenTime, null, null, null);
+        try {
+            service.saveAppointment(request, vet);
+            throw new IllegalStateException("Slot should have been taken");
+        } catch (IllegalArgumentException expected) {
+            return expected.getMessage();
+        }
+    }
+}